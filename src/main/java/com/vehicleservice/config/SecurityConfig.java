@@ -83,12 +83,17 @@ public class SecurityConfig {
         http
                 .authenticationProvider(authenticationProvider())
                 .authorizeHttpRequests(authz -> authz
+                        // Long-lived slot streams and cache statistics are not public, unlike the slot lookups
+                        .requestMatchers("/customer/slots/stream").hasAnyRole("CUSTOMER", "ADMIN")
+                        .requestMatchers("/staff/slots/stream", "/staff/slots/cache-stats")
+                        .hasAnyRole("RECEPTIONIST", "TECHNICIAN", "FUEL_STAFF", "INVENTORY_MANAGER", "MANAGER", "ADMIN")
                         .requestMatchers("/", "/home", "/login", "/register", "/css/**", "/js/**", "/images/**",
                                 "/api/test/**", "/api/test-db", "/api/test-create-user", "/api/test-admin-crud",
                                 "/test/**", "/admin/test-simple", "/debug/**", "/fix/**", "/customer/slots/**",
                                 "/customer/service-pricing", "/staff/slots/**")
                         .permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/manager/**").hasAnyRole("MANAGER", "ADMIN")
                         .requestMatchers("/staff/**")
                         .hasAnyRole("RECEPTIONIST", "TECHNICIAN", "FUEL_STAFF", "INVENTORY_MANAGER", "MANAGER", "ADMIN")
@@ -3,21 +3,33 @@ package com.vehicleservice.controller;
 // Import statements for booking management functionality
 import com.vehicleservice.entity.Booking;
 import com.vehicleservice.entity.User;
+import com.vehicleservice.service.BookingFeed;
+import com.vehicleservice.service.BookingImportService;
 import com.vehicleservice.service.BookingService;
+import com.vehicleservice.service.BookingStatisticsService;
 import com.vehicleservice.service.UserService;
 import com.vehicleservice.service.SingletonVerificationService;
+import com.vehicleservice.service.SlotAvailabilityStream;
 import com.vehicleservice.util.SingletonManager;
 import com.vehicleservice.strategy.PricingStrategyManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.csrf.CsrfToken;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -38,18 +50,28 @@ public class BookingController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BookingStatisticsService bookingStatisticsService;
+
     @Autowired
     private SingletonVerificationService singletonVerificationService;
 
     @Autowired
     private SingletonManager singletonManager;
 
+    @Autowired
+    private SlotAvailabilityStream slotAvailabilityStream;
+
+    @Autowired
+    private BookingImportService bookingImportService;
+
     // =================== DASHBOARD ENDPOINTS ===================
 
     // Receptionist dashboard
     @GetMapping("/staff/receptionist/dashboard")
     public String receptionistDashboard(Authentication authentication, Model model,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String status,
@@ -70,8 +92,10 @@ public class BookingController {
                 return "redirect:/login?error=User not found";
             }
 
-            // Load receptionist-specific data
-            loadReceptionistData(model, csrfToken);
+            // Load receptionist-specific data (one page of the bookings table)
+            BookingFeed.Filter filter = new BookingFeed.Filter(parsePaymentStatus(status), serviceType,
+                    parseDate(dateFrom), parseDate(dateTo), null);
+            loadReceptionistData(model, csrfToken, filter, after, before, size);
             model.addAttribute("user", user);
 
             // Add filter parameters to model for form persistence
@@ -89,50 +113,33 @@ public class BookingController {
     }
 
     // Load receptionist-specific data
-    private void loadReceptionistData(Model model, CsrfToken csrfToken) {
+    private void loadReceptionistData(Model model, CsrfToken csrfToken, BookingFeed.Filter filter,
+            String after, String before, int size) {
         try {
-            // Get all bookings for the main table
-            List<Booking> allBookings = bookingService.getAllBookings();
+            // Get one page of bookings for the main table
+            BookingFeed.FeedPage bookingsPage = bookingService.getBookingFeed(filter, after, before, size);
+            List<Booking> allBookings = bookingsPage.getContent();
 
             // Get all customers
             List<User> customers = userService.getUsersByRole("CUSTOMER");
 
-            // Get today's bookings
-            List<Booking> todaysBookings = bookingService.getBookingsByDateRange(
-                    LocalDateTime.now().withHour(0).withMinute(0).withSecond(0),
-                    LocalDateTime.now().withHour(23).withMinute(59).withSecond(59));
-
-            // Get upcoming bookings (next 7 days)
-            List<Booking> upcomingBookings = bookingService.getUpcomingBookings();
-
-            // Calculate statistics
-            int customerCount = customers.size();
-            int todayBookingsCount = todaysBookings.size();
-            int pendingBookingsCount = (int) allBookings.stream()
-                    .filter(booking -> booking.getPaymentStatus() == Booking.PaymentStatus.PENDING)
-                    .count();
-            int weekBookingsCount = (int) allBookings.stream()
-                    .filter(booking -> booking.getBookingDate() != null &&
-                            booking.getBookingDate().isAfter(LocalDateTime.now().minusDays(7)))
-                    .count();
+            // Calculate statistics over the whole table in one aggregate query
+            BookingStatisticsService.BookingStatistics statistics = bookingStatisticsService.getOverallStatistics();
 
             // Add all attributes to model
             model.addAttribute("allBookings", allBookings);
             model.addAttribute("customers", customers);
-            model.addAttribute("todaysBookings", todaysBookings);
-            model.addAttribute("upcomingBookings", upcomingBookings);
 
             // Pagination attributes
-            model.addAttribute("currentPage", 0);
-            model.addAttribute("totalPages", 1);
-            model.addAttribute("totalBookings", allBookings.size());
-            model.addAttribute("bookingsPerPage", 10);
+            model.addAttribute("bookingsPage", bookingsPage);
+            model.addAttribute("totalBookings", statistics.getTotal());
+            model.addAttribute("bookingsPerPage", bookingsPage.getSize());
 
             // Statistics
-            model.addAttribute("customerCount", customerCount);
-            model.addAttribute("todayBookings", todayBookingsCount);
-            model.addAttribute("pendingBookings", pendingBookingsCount);
-            model.addAttribute("weekBookings", weekBookingsCount);
+            model.addAttribute("customerCount", customers.size());
+            model.addAttribute("todayBookings", statistics.getToday());
+            model.addAttribute("pendingBookings", statistics.getPending());
+            model.addAttribute("weekBookings", statistics.getRecent());
 
             // Add CSRF token to model
             if (csrfToken != null) {
@@ -142,9 +149,8 @@ public class BookingController {
         } catch (Exception e) {
             // Set default values
             model.addAttribute("allBookings", new java.util.ArrayList<>());
+            model.addAttribute("bookingsPage", null);
             model.addAttribute("customers", new java.util.ArrayList<>());
-            model.addAttribute("todaysBookings", new java.util.ArrayList<>());
-            model.addAttribute("upcomingBookings", new java.util.ArrayList<>());
             model.addAttribute("customerCount", 0);
             model.addAttribute("todayBookings", 0);
             model.addAttribute("pendingBookings", 0);
@@ -232,7 +238,10 @@ public class BookingController {
     // Technician dashboard
 
     @GetMapping("/staff/technician/dashboard")
-    public String technicianDashboard(Authentication authentication, Model model) {
+    public String technicianDashboard(Authentication authentication, Model model,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "10") int size) {
         try {
             String username = authentication != null ? authentication.getName() : null;
 
@@ -247,7 +256,7 @@ public class BookingController {
             }
 
             // Load technician-specific data
-            loadTechnicianData(model, technician);
+            loadTechnicianData(model, technician, after, before, size);
             model.addAttribute("user", technician);
 
             return "staff/technician-dashboard";
@@ -258,25 +267,28 @@ public class BookingController {
     }
 
     // Load technician-specific data
-    private void loadTechnicianData(Model model, User technician) {
+    private void loadTechnicianData(Model model, User technician, String after, String before, int size) {
         try {
-            // Get all bookings for technician
-            List<Booking> allBookings = bookingService.getAllBookings();
+            // Get one page of bookings for technician
+            BookingFeed.FeedPage bookingsPage = bookingService.getBookingFeed(BookingFeed.Filter.none(),
+                    after, before, size);
+            List<Booking> allBookings = bookingsPage.getContent();
 
             // Get today's bookings
             List<Booking> todaysBookings = bookingService.getBookingsByDateRange(
-                    LocalDateTime.now().withHour(0).withMinute(0).withSecond(0),
-                    LocalDateTime.now().withHour(23).withMinute(59).withSecond(59));
+                    LocalDate.now().atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay());
 
             // Add attributes to model
             model.addAttribute("allBookings", allBookings);
+            model.addAttribute("bookingsPage", bookingsPage);
             model.addAttribute("todaysBookings", todaysBookings);
-            model.addAttribute("totalBookings", allBookings.size());
+            model.addAttribute("totalBookings", bookingService.getBookingCount());
             model.addAttribute("todaysBookingsCount", todaysBookings.size());
 
         } catch (Exception e) {
             // Set default values
             model.addAttribute("allBookings", new java.util.ArrayList<>());
+            model.addAttribute("bookingsPage", null);
             model.addAttribute("todaysBookings", new java.util.ArrayList<>());
             model.addAttribute("totalBookings", 0);
             model.addAttribute("todaysBookingsCount", 0);
@@ -288,6 +300,7 @@ public class BookingController {
     // Create a new booking
     @PostMapping("/staff/bookings")
     public String createBooking(@RequestParam String customerName,
+            @RequestParam(required = false) String customerId,
             @RequestParam String vehicleNumber,
             @RequestParam String serviceType,
             @RequestParam String bookingDate,
@@ -303,6 +316,7 @@ public class BookingController {
             // Create new booking
             Booking booking = new Booking();
             booking.setCustomerName(customerName);
+            booking.setCustomerId(resolveCustomerId(customerId, customerName));
             booking.setVehicleNumber(vehicleNumber);
             booking.setServiceType(serviceType);
             booking.setBookingDate(LocalDateTime.parse(bookingDate));
@@ -376,6 +390,29 @@ public class BookingController {
         }
     }
 
+    // Bulk import bookings from a UTF-8 CSV body with a header row; the body is read as a stream
+    @PostMapping(value = "/staff/bookings/import", consumes = "text/csv")
+    @ResponseBody
+    public ResponseEntity<?> importBookingsCsv(InputStream body) {
+        try {
+            return ResponseEntity.ok(bookingImportService.importCsv(
+                    new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error importing bookings: " + e.getMessage());
+        }
+    }
+
+    // Bulk import bookings from a JSON array body; the body is read as a stream
+    @PostMapping(value = "/staff/bookings/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> importBookingsJson(InputStream body) {
+        try {
+            return ResponseEntity.ok(bookingImportService.importJson(body));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error importing bookings: " + e.getMessage());
+        }
+    }
+
     /// Delete a booking
     @DeleteMapping("/staff/bookings/{id}")
     @ResponseBody
@@ -420,11 +457,32 @@ public class BookingController {
         }
     }
 
+    // Search bookings by booking number, vehicle number, customer name or service type (ranked, paginated)
+    @GetMapping("/staff/bookings/search")
+    @ResponseBody
+    public ResponseEntity<?> searchBookings(@RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Page<Booking> results = bookingService.searchBookings(q,
+                    PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 100)));
+            return ResponseEntity.ok(Map.of(
+                    "content", results.getContent(),
+                    "page", results.getNumber(),
+                    "size", results.getSize(),
+                    "totalElements", results.getTotalElements(),
+                    "totalPages", results.getTotalPages()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error searching bookings: " + e.getMessage());
+        }
+    }
+
     // Update a booking
     @PutMapping("/staff/bookings/{id}")
     @ResponseBody
     public ResponseEntity<String> updateBooking(@PathVariable Long id,
             @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) String customerId,
             @RequestParam(required = false) String vehicleNumber,
             @RequestParam(required = false) String serviceType,
             @RequestParam(required = false) String bookingDate,
@@ -441,6 +499,7 @@ public class BookingController {
                 // Update fields if provided
                 if (customerName != null && !customerName.isEmpty()) {
                     booking.setCustomerName(customerName);
+                    booking.setCustomerId(resolveCustomerId(customerId, customerName));
                 }
                 if (vehicleNumber != null && !vehicleNumber.isEmpty()) {
                     booking.setVehicleNumber(vehicleNumber);
@@ -497,6 +556,7 @@ public class BookingController {
 
             // Update booking fields
             existingBooking.setCustomerName(allParams.get("customerName"));
+            existingBooking.setCustomerId(resolveCustomerId(allParams.get("customerId"), allParams.get("customerName")));
             existingBooking.setVehicleNumber(allParams.get("vehicleNumber"));
             existingBooking.setServiceType(allParams.get("serviceType"));
             existingBooking.setNotes(allParams.get("notes"));
@@ -569,6 +629,45 @@ public class BookingController {
         }
     }
 
+    // Payment status filter from a request parameter; blank or unknown values mean no filter
+    private Booking.PaymentStatus parsePaymentStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return Booking.PaymentStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Date filter from a yyyy-MM-dd request parameter; blank or malformed values mean no filter
+    private LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date.trim());
+        } catch (java.time.format.DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Customer account for a staff-entered booking: the account picked in the form, otherwise the only
+    // customer with that name (null for walk-ins and for names shared by several customers)
+    private Long resolveCustomerId(String customerId, String customerName) {
+        if (customerId != null && !customerId.isBlank()) {
+            return userService.getUserById(Long.valueOf(customerId.trim()))
+                    .filter(User::isCustomer)
+                    .map(User::getId)
+                    .orElseThrow(() -> new IllegalArgumentException("Customer not found: " + customerId));
+        }
+        if (customerName == null || customerName.isBlank()) {
+            return null;
+        }
+        return userService.findCustomerIdByFullName(customerName).orElse(null);
+    }
+
     // =================== SLOT AVAILABILITY ===================
 
     // Get available slots for a specific date (real-time)
@@ -586,19 +685,55 @@ public class BookingController {
         }
     }
 
-    // Get available slots for the next week
+    // Stream slot availability changes for a date (snapshot first, then deltas on every booking write)
+    @GetMapping(value = "/staff/slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamAvailableSlots(@RequestParam String date,
+            @RequestParam(required = false) String serviceType) {
+        try {
+            LocalDate bookingDate = LocalDate.parse(date);
+            return ResponseEntity.ok(slotAvailabilityStream.subscribe(bookingDate, serviceType));
+        } catch (IllegalStateException e) {
+            // Stream limit reached
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Get available slots for the next week (or any N-day window, e.g. days=30 for a calendar view)
     @GetMapping("/staff/slots/week")
     @ResponseBody
-    public ResponseEntity<?> getAvailableSlotsForWeek(@RequestParam(required = false) String startDate) {
+    public ResponseEntity<?> getAvailableSlotsForWeek(@RequestParam(required = false) String startDate,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) String serviceType) {
         try {
             LocalDate start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now();
-            List<BookingService.DateSlots> weekSlots = bookingService.getAvailableSlotsForWeek(start);
+            List<BookingService.DateSlots> weekSlots = bookingService.getAvailableSlotsForRange(start, days,
+                    serviceType);
             return ResponseEntity.ok(weekSlots);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching week slots: " + e.getMessage());
         }
     }
 
+    // Find the next available slots for a service type (searches up to 90 days ahead)
+    @GetMapping("/staff/slots/next")
+    @ResponseBody
+    public ResponseEntity<?> getNextAvailableSlots(@RequestParam(required = false) String serviceType,
+            @RequestParam(required = false) String fromDate,
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(defaultValue = "90") int days) {
+        try {
+            LocalDate from = fromDate != null ? LocalDate.parse(fromDate) : LocalDate.now();
+            List<BookingService.TimeSlot> nextSlots = bookingService.findNextAvailableSlots(from, serviceType, count,
+                    days);
+            return ResponseEntity.ok(nextSlots);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error finding next available slots: " + e.getMessage());
+        }
+    }
+
     // Check if a specific slot is available
     @GetMapping("/staff/slots/check")
     @ResponseBody
@@ -625,6 +760,19 @@ public class BookingController {
         }
     }
 
+    // Slot availability cache statistics (hits, misses, evictions)
+    @GetMapping("/staff/slots/cache-stats")
+    @ResponseBody
+    public ResponseEntity<?> getSlotCacheStats() {
+        try {
+            Map<String, Object> stats = bookingService.getSlotAvailabilityCacheStats();
+            stats.put("streams", slotAvailabilityStream.getStats());
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error fetching slot cache statistics: " + e.getMessage());
+        }
+    }
+
     /// Get service pricing information
     @GetMapping("/staff/service-pricing")
     @ResponseBody
@@ -659,6 +807,25 @@ public class BookingController {
         }
     }
 
+    /// Quote processing fees for several (amount, payment method) pairs in one call; without
+    /// paymentMethod every known method is quoted for the amount
+    @PostMapping("/staff/payment/quote-fees")
+    @ResponseBody
+    public ResponseEntity<?> quoteStaffProcessingFees(@RequestParam List<BigDecimal> amount,
+            @RequestParam(required = false) List<String> paymentMethod) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "quotes", bookingService.quoteProcessingFees(amount, paymentMethod)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", "Invalid fee quote request: " + e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "error", "Failed to quote processing fees: " + e.getMessage()));
+        }
+    }
+
     /// Calculate complete service pricing for staff using pricing strategies
     @PostMapping("/staff/pricing/calculate")
     @ResponseBody
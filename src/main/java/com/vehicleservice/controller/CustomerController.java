@@ -4,24 +4,31 @@ import com.vehicleservice.entity.Booking;
 import com.vehicleservice.entity.User;
 import com.vehicleservice.entity.Feedback;
 import com.vehicleservice.service.BookingService;
+import com.vehicleservice.service.BookingStatisticsService;
 import com.vehicleservice.service.UserService;
 import com.vehicleservice.service.FeedbackService;
-import com.vehicleservice.strategy.PaymentProcessingStrategy;
+import com.vehicleservice.service.PaymentPipeline;
+import com.vehicleservice.service.SlotAvailabilityStream;
 import com.vehicleservice.strategy.PricingStrategyManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -31,21 +38,35 @@ import java.util.Optional;
 @org.springframework.context.annotation.Scope("singleton")
 public class CustomerController {
 
+    // Days past the earliest bookable day that customers can search for slots (the longest slot window)
+    private static final int BOOKING_HORIZON_DAYS = 90;
+
     @Autowired
     private BookingService bookingService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BookingStatisticsService bookingStatisticsService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @Autowired
     private FeedbackService feedbackService;
 
+    @Autowired
+    private SlotAvailabilityStream slotAvailabilityStream;
+
+    @Autowired
+    private PaymentPipeline paymentPipeline;
+
     /// Customer Dashboard - All-in-one interface
     @GetMapping("/dashboard")
-    public String customerDashboard(Authentication authentication, Model model) {
+    public String customerDashboard(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication, Model model) {
         try {
             // Get current user
             String username = authentication.getName();
@@ -54,42 +75,32 @@ public class CustomerController {
                 return "redirect:/login?error=User not found";
             }
 
-            // Get customer's bookings
-            List<Booking> customerBookings = bookingService
-                    .getBookingsByCustomerName(currentUser.getFirstName() + " " + currentUser.getLastName());
-
-            // Calculate statistics
-            long totalBookings = customerBookings.size();
-            long pendingBookings = customerBookings.stream()
-                    .filter(b -> b.getPaymentStatus() != null && b.getPaymentStatus().name().equals("PENDING"))
-                    .count();
-            long inProgressBookings = customerBookings.stream()
-                    .filter(b -> b.getPaymentStatus() != null && b.getPaymentStatus().name().equals("PARTIAL"))
-                    .count();
-            long completedBookings = customerBookings.stream()
-                    .filter(b -> b.getPaymentStatus() != null && b.getPaymentStatus().name().equals("PAID"))
-                    .count();
-
-            // Get upcoming bookings (next 7 days)
-            LocalDate today = LocalDate.now();
-            LocalDate nextWeek = today.plusDays(7);
-            List<Booking> upcomingBookings = customerBookings.stream()
-                    .filter(b -> b.getBookingDate() != null &&
-                            b.getBookingDate().toLocalDate().isAfter(today.minusDays(1)) &&
-                            b.getBookingDate().toLocalDate().isBefore(nextWeek) &&
-                            (b.getPaymentStatus() == null || !b.getPaymentStatus().name().equals("PAID")))
-                    .sorted((b1, b2) -> b1.getBookingDate().compareTo(b2.getBookingDate()))
-                    .limit(5)
-                    .toList();
+            // Get one page of the customer's bookings (newest first) by account id
+            Page<Booking> bookingsPage = bookingService.getBookingsByCustomer(currentUser.getId(),
+                    Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+            List<Booking> customerBookings = bookingsPage.getContent();
+
+            // Calculate statistics over all of the customer's bookings in one aggregate query
+            BookingStatisticsService.BookingStatistics statistics = bookingStatisticsService
+                    .getCustomerStatistics(currentUser.getId());
+            long totalBookings = statistics.getTotal();
+            long pendingBookings = statistics.getPending();
+            long inProgressBookings = statistics.getPartial();
+            long completedBookings = statistics.getPaid();
+
+            // Get upcoming bookings (next 7 days); skipped when the counters show there are none
+            List<Booking> upcomingBookings = statistics.getUpcomingUnpaid() > 0
+                    ? bookingService.getUpcomingBookingsForCustomer(currentUser.getId(), 5)
+                    : List.of();
 
             // Get recent bookings (last 5)
-            List<Booking> recentBookings = customerBookings.stream()
-                    .sorted((b1, b2) -> b2.getBookingDate().compareTo(b1.getBookingDate()))
-                    .limit(5)
-                    .toList();
+            List<Booking> recentBookings = bookingsPage.getNumber() == 0
+                    ? customerBookings.subList(0, Math.min(5, customerBookings.size()))
+                    : bookingService.getBookingsByCustomer(currentUser.getId(), 0, 5).getContent();
 
             // Add attributes to model
             model.addAttribute("customerBookings", customerBookings);
+            model.addAttribute("bookingsPage", bookingsPage);
             model.addAttribute("totalBookings", totalBookings);
             model.addAttribute("pendingBookings", pendingBookings);
             model.addAttribute("inProgressBookings", inProgressBookings);
@@ -127,6 +138,7 @@ public class CustomerController {
 
             // Set basic information
             booking.setCustomerName(currentUser.getFirstName() + " " + currentUser.getLastName());
+            booking.setCustomerId(currentUser.getId());
             booking.setVehicleNumber(allParams.get("vehicleNumber"));
             booking.setServiceType(allParams.get("serviceType"));
             booking.setNotes(allParams.get("notes"));
@@ -137,12 +149,18 @@ public class CustomerController {
                 booking.setPaymentMethod(paymentMethod);
             }
 
-            // Convert booking date from string to LocalDateTime
+            // Convert booking date and selected time slot from string to LocalDateTime
             String bookingDateStr = allParams.get("bookingDate");
+            String timeSlotStr = allParams.get("timeSlot");
             if (bookingDateStr != null && !bookingDateStr.isEmpty()) {
                 try {
-                    LocalDate date = LocalDate.parse(bookingDateStr);
-                    booking.setBookingDate(date.atStartOfDay());
+                    if (bookingDateStr.contains("T")) {
+                        booking.setBookingDate(LocalDateTime.parse(bookingDateStr));
+                    } else if (timeSlotStr != null && !timeSlotStr.isEmpty()) {
+                        booking.setBookingDate(LocalDate.parse(bookingDateStr).atTime(LocalTime.parse(timeSlotStr)));
+                    } else {
+                        booking.setBookingDate(LocalDate.parse(bookingDateStr).atStartOfDay());
+                    }
                 } catch (Exception e) {
                     redirectAttributes.addFlashAttribute("error", "Invalid date format. Please select a valid date.");
                     return "redirect:/customer/dashboard";
@@ -211,8 +229,8 @@ public class CustomerController {
                 booking.setRemainingAmount(servicePrice.add(booking.getAdditionalCharges()));
             }
 
-            // Save booking
-            bookingService.saveBooking(booking);
+            // Save booking; the paying amount is only what the customer intends to pay, not a ledger charge
+            bookingService.saveBooking(booking, false);
             redirectAttributes.addFlashAttribute("message", "Booking created successfully!");
 
             return "redirect:/customer/dashboard";
@@ -236,20 +254,48 @@ public class CustomerController {
                 return "redirect:/customer/dashboard";
             }
 
+            Optional<Booking> existingBookingOpt = booking.getId() != null
+                    ? bookingService.getBookingById(booking.getId())
+                    : Optional.empty();
+            if (!existingBookingOpt.isPresent()) {
+                redirectAttributes.addFlashAttribute("error", "Booking not found");
+                return "redirect:/customer/dashboard";
+            }
+
+            Booking existingBooking = existingBookingOpt.get();
+
+            // Only the owner may update a booking, and it stays linked to their account
+            if (!isOwnBooking(existingBooking, currentUser)) {
+                redirectAttributes.addFlashAttribute("error", "Access denied");
+                return "redirect:/customer/dashboard";
+            }
+            existingBooking.setCustomerId(currentUser.getId());
+
+            // Copy only the customer-editable fields; payment amounts stay as stored
+            existingBooking.setVehicleNumber(booking.getVehicleNumber());
+            existingBooking.setServiceType(booking.getServiceType());
+            existingBooking.setNotes(booking.getNotes());
+            existingBooking.setBookingDate(booking.getBookingDate());
+            existingBooking.setServicePrice(booking.getServicePrice());
+            existingBooking.setAdditionalCharges(booking.getAdditionalCharges());
+            existingBooking.setPaymentMethod(booking.getPaymentMethod());
+
             // Update timestamps
-            booking.setUpdatedAt(LocalDateTime.now());
+            existingBooking.setUpdatedAt(LocalDateTime.now());
 
             // Ensure payment status remains PENDING for customer bookings
-            booking.setPaymentStatus(Booking.PaymentStatus.PENDING);
+            existingBooking.setPaymentStatus(Booking.PaymentStatus.PENDING);
 
             // Recalculate total price
-            BigDecimal servicePrice = booking.getServicePrice() != null ? booking.getServicePrice() : BigDecimal.ZERO;
-            BigDecimal additionalCharges = booking.getAdditionalCharges() != null ? booking.getAdditionalCharges()
+            BigDecimal servicePrice = existingBooking.getServicePrice() != null ? existingBooking.getServicePrice()
+                    : BigDecimal.ZERO;
+            BigDecimal additionalCharges = existingBooking.getAdditionalCharges() != null
+                    ? existingBooking.getAdditionalCharges()
                     : BigDecimal.ZERO;
-            booking.setTotalPrice(servicePrice.add(additionalCharges));
+            existingBooking.setTotalPrice(servicePrice.add(additionalCharges));
 
-            // Save booking
-            bookingService.saveBooking(booking);
+            // Save booking; nothing was paid through a payment strategy, so the ledger is left alone
+            bookingService.saveBooking(existingBooking, false);
             redirectAttributes.addFlashAttribute("message", "Booking updated successfully!");
 
             return "redirect:/customer/dashboard";
@@ -274,6 +320,50 @@ public class CustomerController {
         }
     }
 
+    /// Find the next available slots for a service type (customers book at least 2 days ahead and at most
+    /// BOOKING_HORIZON_DAYS beyond that)
+    @GetMapping("/slots/next")
+    @ResponseBody
+    public ResponseEntity<?> getNextAvailableSlots(@RequestParam(required = false) String serviceType,
+            @RequestParam(required = false) String fromDate,
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(defaultValue = "90") int days) {
+        try {
+            LocalDate earliest = LocalDate.now().plusDays(2);
+            LocalDate latest = earliest.plusDays(BOOKING_HORIZON_DAYS);
+            LocalDate from = fromDate != null ? LocalDate.parse(fromDate) : earliest;
+            if (from.isBefore(earliest)) {
+                from = earliest;
+            }
+            if (from.isAfter(latest)) {
+                return ResponseEntity.badRequest().body("Slots can only be searched up to " + latest);
+            }
+            // Never load occupancy for days past the booking horizon
+            int horizonDays = (int) Math.min(days, ChronoUnit.DAYS.between(from, latest) + 1);
+            List<BookingService.TimeSlot> nextSlots = bookingService.findNextAvailableSlots(from, serviceType, count,
+                    horizonDays);
+            return ResponseEntity.ok(nextSlots);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error finding next available slots: " + e.getMessage());
+        }
+    }
+
+    /// Stream slot availability changes for the booking form (snapshot first, then deltas)
+    @GetMapping(value = "/slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamAvailableSlots(@RequestParam String date,
+            @RequestParam(required = false) String serviceType) {
+        try {
+            LocalDate bookingDate = LocalDate.parse(date);
+            return ResponseEntity.ok(slotAvailabilityStream.subscribe(bookingDate, serviceType));
+        } catch (IllegalStateException e) {
+            // Stream limit reached
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /// Get service pricing
     @GetMapping("/service-pricing")
     @ResponseBody
@@ -289,6 +379,31 @@ public class CustomerController {
         }
     }
 
+    /// Current customer's bookings, one page at a time (newest first)
+    @GetMapping("/bookings")
+    @ResponseBody
+    public ResponseEntity<?> listBookings(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        try {
+            User currentUser = userService.getUserByUsername(authentication.getName()).orElse(null);
+            if (currentUser == null) {
+                return ResponseEntity.badRequest().body("User not found");
+            }
+
+            Page<Booking> bookings = bookingService.getBookingsByCustomer(currentUser.getId(),
+                    Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+            return ResponseEntity.ok(Map.of(
+                    "content", bookings.getContent(),
+                    "page", bookings.getNumber(),
+                    "size", bookings.getSize(),
+                    "totalElements", bookings.getTotalElements(),
+                    "totalPages", bookings.getTotalPages()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error fetching bookings: " + e.getMessage());
+        }
+    }
+
     /// View booking details
     @GetMapping("/bookings/{id}")
     @ResponseBody
@@ -308,8 +423,7 @@ public class CustomerController {
             Booking booking = bookingOpt.get();
 
             // Check if the booking belongs to the current user
-            String customerName = currentUser.getFirstName() + " " + currentUser.getLastName();
-            if (!booking.getCustomerName().equals(customerName)) {
+            if (!isOwnBooking(booking, currentUser)) {
                 return ResponseEntity.badRequest().body("Access denied");
             }
 
@@ -342,8 +456,7 @@ public class CustomerController {
             Booking existingBooking = existingBookingOpt.get();
 
             // Check if the booking belongs to the current user
-            String customerName = currentUser.getFirstName() + " " + currentUser.getLastName();
-            if (!existingBooking.getCustomerName().equals(customerName)) {
+            if (!isOwnBooking(existingBooking, currentUser)) {
                 redirectAttributes.addFlashAttribute("error", "Access denied");
                 return "redirect:/customer/dashboard";
             }
@@ -370,8 +483,8 @@ public class CustomerController {
                     : BigDecimal.ZERO;
             existingBooking.setTotalPrice(servicePrice.add(additionalCharges));
 
-            // Save updated booking
-            bookingService.saveBooking(existingBooking);
+            // Save updated booking; customer edits never move money, so the ledger is left alone
+            bookingService.saveBooking(existingBooking, false);
             redirectAttributes.addFlashAttribute("message", "Booking updated successfully!");
 
             return "redirect:/customer/dashboard";
@@ -403,8 +516,7 @@ public class CustomerController {
             Booking booking = bookingOpt.get();
 
             // Check if the booking belongs to the current user
-            String customerName = currentUser.getFirstName() + " " + currentUser.getLastName();
-            if (!booking.getCustomerName().equals(customerName)) {
+            if (!isOwnBooking(booking, currentUser)) {
                 redirectAttributes.addFlashAttribute("error", "Access denied");
                 return "redirect:/customer/dashboard";
             }
@@ -534,6 +646,11 @@ public class CustomerController {
         }
     }
 
+    // A booking belongs to the customer account it is linked to
+    private boolean isOwnBooking(Booking booking, User user) {
+        return booking.getCustomerId() != null && booking.getCustomerId().equals(user.getId());
+    }
+
     private BigDecimal getServicePrice(String serviceType) {
         if (serviceType == null) {
             return BigDecimal.valueOf(5000.00); // Default service price
@@ -664,8 +781,7 @@ public class CustomerController {
             Booking booking = bookingOpt.get();
 
             // Check if the booking belongs to the current user
-            String customerName = currentUser.getFirstName() + " " + currentUser.getLastName();
-            if (!booking.getCustomerName().equals(customerName)) {
+            if (!isOwnBooking(booking, currentUser)) {
                 return "redirect:/customer/dashboard?error=Access denied";
             }
 
@@ -717,8 +833,7 @@ public class CustomerController {
             Booking booking = bookingOpt.get();
 
             // Check if the booking belongs to the current user
-            String customerName = currentUser.getFirstName() + " " + currentUser.getLastName();
-            if (!booking.getCustomerName().equals(customerName)) {
+            if (!isOwnBooking(booking, currentUser)) {
                 redirectAttributes.addFlashAttribute("error", "Access denied");
                 return "redirect:/customer/dashboard";
             }
@@ -778,8 +893,7 @@ public class CustomerController {
             Booking booking = bookingOpt.get();
 
             // Check if the booking belongs to the current user
-            String customerName = currentUser.getFirstName() + " " + currentUser.getLastName();
-            if (!booking.getCustomerName().equals(customerName)) {
+            if (!isOwnBooking(booking, currentUser)) {
                 return ResponseEntity.badRequest().body("Access denied");
             }
 
@@ -1024,6 +1138,25 @@ public class CustomerController {
         }
     }
 
+    /// Quote processing fees for several (amount, payment method) pairs in one call; without
+    /// paymentMethod every known method is quoted for the amount
+    @PostMapping("/payment/quote-fees")
+    @ResponseBody
+    public ResponseEntity<?> quoteProcessingFees(@RequestParam List<BigDecimal> amount,
+            @RequestParam(required = false) List<String> paymentMethod) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "quotes", bookingService.quoteProcessingFees(amount, paymentMethod)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", "Invalid fee quote request: " + e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "error", "Failed to quote processing fees: " + e.getMessage()));
+        }
+    }
+
     /// Calculate service pricing using pricing strategies
     @PostMapping("/pricing/calculate")
     @ResponseBody
@@ -1044,41 +1177,115 @@ public class CustomerController {
         }
     }
 
-    /// Process payment for a booking
+    /// Process payment for a booking. The payment runs in the payment pipeline; the request thread is
+    /// released while it runs and the response is sent once the payment completes. A retry carrying
+    /// the same Idempotency-Key header gets the first submission's outcome instead of paying again.
     @PostMapping("/payment/process")
     @ResponseBody
-    public ResponseEntity<?> processPayment(@RequestParam Long bookingId,
+    public DeferredResult<ResponseEntity<?>> processPayment(@RequestParam Long bookingId,
             @RequestParam BigDecimal amount,
-            @RequestParam String paymentMethod) {
+            @RequestParam String paymentMethod,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication authentication) {
+        DeferredResult<ResponseEntity<?>> response = new DeferredResult<>(paymentPipeline.getMaxWaitMillis() + 1000);
         try {
-            Optional<Booking> bookingOpt = bookingService.getBookingById(bookingId);
-            if (bookingOpt.isEmpty()) {
+            if (bookingService.getBookingById(bookingId).isEmpty()) {
+                response.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Booking not found")));
+                return response;
+            }
+
+            PaymentPipeline.PaymentJob job = paymentPipeline.submit(bookingId, amount, paymentMethod,
+                    authentication.getName(), idempotencyKey);
+            response.onTimeout(() -> response.setResult(ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("success", false, "paymentId", job.getPaymentId(),
+                            "status", job.getStatus()))));
+            job.whenCompleted().thenAccept(done -> response.setResult(paymentOutcome(done)));
+        } catch (IllegalArgumentException e) {
+            response.setResult(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", e.getMessage())));
+        } catch (IllegalStateException e) {
+            response.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("success", false, "error", e.getMessage())));
+        } catch (Exception e) {
+            response.setResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to process payment: " + e.getMessage())));
+        }
+        return response;
+    }
+
+    /// Submit a payment for a booking and return its payment id at once; the outcome is available
+    /// from /payment/status/{paymentId} or pushed by /payment/status/{paymentId}/stream. Submissions
+    /// with the same Idempotency-Key header return the same payment.
+    @PostMapping("/payment/submit")
+    @ResponseBody
+    public ResponseEntity<?> submitPayment(@RequestParam Long bookingId,
+            @RequestParam BigDecimal amount,
+            @RequestParam String paymentMethod,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication authentication) {
+        try {
+            if (bookingService.getBookingById(bookingId).isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "Booking not found"));
             }
 
-            Booking booking = bookingOpt.get();
-            PaymentProcessingStrategy.PaymentResult result = bookingService.processPayment(booking, amount,
-                    paymentMethod);
+            PaymentPipeline.PaymentJob job = paymentPipeline.submit(bookingId, amount, paymentMethod,
+                    authentication.getName(), idempotencyKey);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to submit payment: " + e.getMessage()));
+        }
+    }
 
-            if (result.isSuccess()) {
-                // Update booking with payment method
-                booking.setPaymentMethod(paymentMethod);
-                bookingService.saveBooking(booking);
+    /// Current status of a submitted payment
+    @GetMapping("/payment/status/{paymentId}")
+    @ResponseBody
+    public ResponseEntity<?> getPaymentStatus(@PathVariable String paymentId, Authentication authentication) {
+        Optional<PaymentPipeline.PaymentJob> job = paymentPipeline.getPayment(paymentId, authentication.getName());
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Payment not found"));
+        }
+        return ResponseEntity.ok(job.get());
+    }
+
+    /// Stream the status of a submitted payment until it completes
+    @GetMapping(value = "/payment/status/{paymentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamPaymentStatus(@PathVariable String paymentId,
+            Authentication authentication) {
+        Optional<PaymentPipeline.PaymentJob> job = paymentPipeline.getPayment(paymentId, authentication.getName());
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(paymentPipeline.subscribe(job.get()));
+    }
 
+    // Response of /payment/process for a completed payment
+    private ResponseEntity<?> paymentOutcome(PaymentPipeline.PaymentJob job) {
+        switch (job.getStatus()) {
+            case SUCCEEDED:
                 return ResponseEntity.ok(Map.of(
                         "success", true,
-                        "message", result.getMessage(),
-                        "transactionId", result.getTransactionId(),
-                        "amount", result.getProcessedAmount(),
-                        "processingFees", result.getProcessingFees()));
-            } else {
+                        "message", job.getMessage(),
+                        "transactionId", job.getTransactionId(),
+                        "amount", job.getAmount(),
+                        "processingFees", job.getProcessingFees()));
+            case TIMED_OUT:
+                return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                        .body(Map.of("success", false, "error", job.getMessage()));
+            case REJECTED:
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(Map.of("success", false, "error", job.getMessage()));
+            default:
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("success", false, "error", result.getMessage()));
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to process payment: " + e.getMessage()));
+                        .body(Map.of("success", false, "error", job.getMessage()));
         }
     }
 }
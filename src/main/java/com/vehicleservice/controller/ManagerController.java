@@ -5,10 +5,13 @@ import com.vehicleservice.entity.Technician;
 import com.vehicleservice.entity.TechnicianAssignment;
 import com.vehicleservice.entity.User;
 import com.vehicleservice.entity.Feedback;
+import com.vehicleservice.service.BookingFeed;
 import com.vehicleservice.service.BookingService;
 import com.vehicleservice.service.UserService;
 import com.vehicleservice.service.AssignmentService;
 import com.vehicleservice.service.FeedbackService;
+import com.vehicleservice.service.ManagerDashboardSnapshot;
+import com.vehicleservice.service.PaymentSettlementJob;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -21,8 +24,10 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
@@ -47,8 +52,19 @@ public class ManagerController {
     @Autowired
     private FeedbackService feedbackService;
 
+    @Autowired
+    private ManagerDashboardSnapshot managerDashboardSnapshot;
+
+    @Autowired
+    private PaymentSettlementJob paymentSettlementJob;
+
     @GetMapping("/manager/dashboard")
-    public String managerDashboard(Authentication authentication, Model model) {
+    public String managerDashboard(Authentication authentication, Model model,
+            @RequestParam(required = false) String unassignedAfter,
+            @RequestParam(required = false) String unassignedBefore,
+            @RequestParam(required = false) String assignedAfter,
+            @RequestParam(required = false) String assignedBefore,
+            @RequestParam(defaultValue = "10") int size) {
         try {
             // Get current user
             String username = authentication.getName();
@@ -59,86 +75,41 @@ public class ManagerController {
 
             // Get manager statistics using unified service
             List<Technician> technicians = assignmentService.getAllActiveTechnicians();
-            List<Booking> allBookings = bookingService.getAllBookings();
-
-            // Get all assignments and filter out any with missing bookings
-            List<TechnicianAssignment> allAssignments = assignmentService.getAllAssignments();
-            List<TechnicianAssignment> assignments = new java.util.ArrayList<>();
-
-            for (TechnicianAssignment assignment : allAssignments) {
-                try {
-                    // Try to access the booking to check if it exists
-                    if (assignment.getBooking() != null && assignment.getBooking().getId() != null) {
-                        assignments.add(assignment);
-                    }
-                } catch (Exception e) {
-                    // Skip assignments with missing bookings
-                }
-            }
-
-            // Separate assigned and unassigned bookings
-            List<Booking> unassignedBookingsList = new java.util.ArrayList<>();
-            List<Booking> assignedBookingsList = new java.util.ArrayList<>();
-
-            for (Booking booking : allBookings) {
-                List<TechnicianAssignment> bookingAssignments = assignmentService
-                        .getAssignmentsByBooking(booking.getId());
-                if (bookingAssignments.isEmpty()) {
-                    unassignedBookingsList.add(booking);
-                } else {
-                    assignedBookingsList.add(booking);
-                }
-            }
-
-            // Calculate statistics
-            int totalBookings = allBookings.size();
-            int unassignedBookings = unassignedBookingsList.size();
-            int activeAssignments = (int) assignments.stream()
-                    .filter(assignment -> assignment.getStatus() == TechnicianAssignment.AssignmentStatus.ASSIGNED ||
-                            assignment.getStatus() == TechnicianAssignment.AssignmentStatus.IN_PROGRESS)
-                    .count();
 
-            // Get assignment data for assigned bookings
-            Map<Long, TechnicianAssignment> bookingAssignmentMap = new HashMap<>();
+            // One page each of unassigned and assigned bookings, newest first
+            BookingFeed.FeedPage unassignedPage = bookingService.getBookingFeed(BookingFeed.Filter.byAssignment(false),
+                    unassignedAfter, unassignedBefore, size);
+            BookingFeed.FeedPage assignedPage = bookingService.getBookingFeed(BookingFeed.Filter.byAssignment(true),
+                    assignedAfter, assignedBefore, size);
+            List<Booking> unassignedBookingsList = unassignedPage.getContent();
+            List<Booking> assignedBookingsList = assignedPage.getContent();
+
+            // Counters come from the in-memory snapshot, not from the database
+            ManagerDashboardSnapshot.Counters counters = managerDashboardSnapshot.get();
+            long totalBookings = counters.getTotalBookings();
+            long unassignedBookings = counters.getUnassignedBookings();
+            int activeAssignments = (int) counters.getActive();
+
+            // Latest assignment of every booking on the assigned page, with technician and assigning user,
+            // in one query
+            List<Long> assignedBookingIds = new ArrayList<>();
             for (Booking booking : assignedBookingsList) {
-                List<TechnicianAssignment> bookingAssignments = assignmentService
-                        .getAssignmentsByBooking(booking.getId());
-                if (!bookingAssignments.isEmpty()) {
-                    bookingAssignmentMap.put(booking.getId(), bookingAssignments.get(0));
-                }
+                assignedBookingIds.add(booking.getId());
             }
+            Map<Long, TechnicianAssignment> bookingAssignmentMap = assignmentService
+                    .getLatestAssignmentsByBookings(assignedBookingIds);
 
             // Get available technicians for assignment dropdown
             List<User> availableTechnicians = userService.getUsersByRole("TECHNICIAN");
 
-            // Calculate assignment analytics
-            int assignedCount = (int) assignments.stream()
-                    .filter(a -> a.getStatus() == TechnicianAssignment.AssignmentStatus.ASSIGNED)
-                    .count();
-            int inProgressCount = (int) assignments.stream()
-                    .filter(a -> a.getStatus() == TechnicianAssignment.AssignmentStatus.IN_PROGRESS)
-                    .count();
-            int completedCount = (int) assignments.stream()
-                    .filter(a -> a.getStatus() == TechnicianAssignment.AssignmentStatus.COMPLETED)
-                    .count();
-            int cancelledCount = (int) assignments.stream()
-                    .filter(a -> a.getStatus() == TechnicianAssignment.AssignmentStatus.CANCELLED)
-                    .count();
-
-            // Calculate timeline analytics
-            LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime weekStart = today.minusDays(7);
-            LocalDateTime monthStart = today.minusDays(30);
-
-            int todayAssignments = (int) assignments.stream()
-                    .filter(a -> a.getAssignmentDate().isAfter(today))
-                    .count();
-            int weekAssignments = (int) assignments.stream()
-                    .filter(a -> a.getAssignmentDate().isAfter(weekStart))
-                    .count();
-            int monthAssignments = (int) assignments.stream()
-                    .filter(a -> a.getAssignmentDate().isAfter(monthStart))
-                    .count();
+            // Assignment analytics from the snapshot
+            int assignedCount = (int) counters.getCount(TechnicianAssignment.AssignmentStatus.ASSIGNED);
+            int inProgressCount = (int) counters.getCount(TechnicianAssignment.AssignmentStatus.IN_PROGRESS);
+            int completedCount = (int) counters.getCount(TechnicianAssignment.AssignmentStatus.COMPLETED);
+            int cancelledCount = (int) counters.getCount(TechnicianAssignment.AssignmentStatus.CANCELLED);
+            int todayAssignments = (int) counters.getToday();
+            int weekAssignments = (int) counters.getWeek();
+            int monthAssignments = (int) counters.getMonth();
 
             // Calculate average completion time (simplified)
             String averageCompletionTime = "2.5 hrs"; // This would be calculated from actual data
@@ -146,22 +117,22 @@ public class ManagerController {
             // Add all required attributes to model
             model.addAttribute("user", currentUser);
             model.addAttribute("technicians", technicians);
-            model.addAttribute("bookings", allBookings);
-            model.addAttribute("assignments", assignments);
             model.addAttribute("totalBookings", totalBookings);
             model.addAttribute("unassignedBookings", unassignedBookings);
             model.addAttribute("activeAssignments", activeAssignments);
             model.addAttribute("unassignedBookingsList", unassignedBookingsList);
             model.addAttribute("assignedBookingsList", assignedBookingsList);
+            model.addAttribute("unassignedPage", unassignedPage);
+            model.addAttribute("assignedPage", assignedPage);
             model.addAttribute("bookingAssignmentMap", bookingAssignmentMap);
             model.addAttribute("availableTechnicians", availableTechnicians);
 
             // Create a map of booking ID to technician name for easy lookup
             Map<Long, String> bookingTechnicianMap = new HashMap<>();
-            for (TechnicianAssignment assignment : assignments) {
-                String technicianName = assignment.getTechnician().getUser().getFirstName() + " " +
-                        assignment.getTechnician().getUser().getLastName();
-                bookingTechnicianMap.put(assignment.getBooking().getId(), technicianName);
+            for (Map.Entry<Long, TechnicianAssignment> entry : bookingAssignmentMap.entrySet()) {
+                User technicianUser = entry.getValue().getTechnician().getUser();
+                bookingTechnicianMap.put(entry.getKey(), technicianUser.getFirstName() + " " +
+                        technicianUser.getLastName());
             }
 
             // Add analytics data
@@ -564,34 +535,58 @@ public class ManagerController {
 
     @GetMapping("/manager/assignments/export")
     @ResponseBody
-    public ResponseEntity<String> exportAssignments(Authentication authentication) {
+    public ResponseEntity<?> exportAssignments(@RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String status,
+            Authentication authentication) {
         try {
-            List<TechnicianAssignment> assignments = assignmentService.getAllAssignments();
-            StringBuilder csv = new StringBuilder();
-            csv.append("Assignment ID,Booking Number,Customer,Technician,Assigned By,Assignment Date,Status,Notes\n");
-
-            for (TechnicianAssignment assignment : assignments) {
-                csv.append(assignment.getId()).append(",");
-                csv.append(assignment.getBooking().getBookingNumber()).append(",");
-                csv.append(assignment.getBooking().getCustomerName()).append(",");
-                csv.append(assignment.getTechnician().getUser().getFirstName() + " "
-                        + assignment.getTechnician().getUser().getLastName()).append(",");
-                csv.append(assignment.getAssignedBy().getFirstName() + " " + assignment.getAssignedBy().getLastName())
-                        .append(",");
-                csv.append(assignment.getAssignmentDate().toString()).append(",");
-                csv.append(assignment.getStatus().toString()).append(",");
-                csv.append(assignment.getNotes() != null ? assignment.getNotes() : "").append("\n");
-            }
-
+            // Filters: assignment date range (inclusive, yyyy-MM-dd) and status
+            LocalDate fromDate = from != null && !from.isBlank() ? LocalDate.parse(from.trim()) : null;
+            LocalDate toDate = to != null && !to.isBlank() ? LocalDate.parse(to.trim()) : null;
+            TechnicianAssignment.AssignmentStatus statusFilter = status != null && !status.isBlank()
+                    ? TechnicianAssignment.AssignmentStatus.valueOf(status.trim().toUpperCase())
+                    : null;
+
+            // Rows are written to the response as they are read from the database; the export runs as an
+            // async request, bounded by spring.mvc.async.request-timeout
+            StreamingResponseBody body = output -> assignmentService.exportAssignmentsCsv(fromDate, toDate,
+                    statusFilter, output);
             return ResponseEntity.ok()
-                    .header("Content-Type", "text/csv")
+                    .header("Content-Type", "text/csv; charset=UTF-8")
                     .header("Content-Disposition", "attachment; filename=assignments.csv")
-                    .body(csv.toString());
+                    .body(body);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error exporting assignments: " + e.getMessage());
         }
     }
 
+    /// Daily payment settlements (per payment method) for a date range, inclusive, yyyy-MM-dd;
+    /// defaults to the last 30 days
+    @GetMapping("/manager/payments/settlements")
+    @ResponseBody
+    public ResponseEntity<?> getPaymentSettlements(@RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            LocalDate toDate = to != null && !to.isBlank() ? LocalDate.parse(to.trim()) : LocalDate.now();
+            LocalDate fromDate = from != null && !from.isBlank() ? LocalDate.parse(from.trim())
+                    : toDate.minusDays(30);
+            return ResponseEntity.ok(paymentSettlementJob.getSettlements(fromDate, toDate));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error fetching payment settlements: " + e.getMessage());
+        }
+    }
+
+    /// Settle a finished day again from the payment ledger
+    @PostMapping("/manager/payments/settlements/{date}/settle")
+    @ResponseBody
+    public ResponseEntity<?> settlePaymentDay(@PathVariable String date) {
+        try {
+            return ResponseEntity.ok(paymentSettlementJob.settle(LocalDate.parse(date.trim())));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error settling payments: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/manager/cleanup-orphaned-assignments")
     @ResponseBody
     public ResponseEntity<String> cleanupOrphanedAssignments(Authentication authentication) {
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 @Table(name = "bookings")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (migration V5) so inserts can be sent in JDBC batches
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "booking_number", unique = true, nullable = false, length = 50)
@@ -17,6 +19,10 @@ public class Booking {
     @Column(name = "customer_name", nullable = false, length = 100)
     private String customerName;
 
+    // Owning customer account (users.id); null for walk-in bookings not linked to an account
+    @Column(name = "customer_id")
+    private Long customerId;
+
     @Column(name = "vehicle_number", nullable = false, length = 20)
     private String vehicleNumber;
 
@@ -107,6 +113,15 @@ public class Booking {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
     public String getVehicleNumber() {
         return vehicleNumber;
     }
@@ -7,7 +7,8 @@ import jakarta.persistence.*;
 public class Feedback extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_seq")
+    @SequenceGenerator(name = "feedback_seq", sequenceName = "feedback_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "rating", nullable = false)
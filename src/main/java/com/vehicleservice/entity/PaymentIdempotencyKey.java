@@ -0,0 +1,194 @@
+package com.vehicleservice.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Claim on an idempotency key, and the outcome of the payment submission it was first used for
+@Entity
+@Table(name = "payment_idempotency_keys")
+public class PaymentIdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_idempotency_keys_seq")
+    @SequenceGenerator(name = "payment_idempotency_keys_seq", sequenceName = "payment_idempotency_keys_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "payment_id", nullable = false, length = 36)
+    private String paymentId;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "payment_method", nullable = false, length = 50)
+    private String paymentMethod;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    // Whether the payment was charged; null while the payment is pending
+    @Column(name = "success")
+    private Boolean success;
+
+    @Column(name = "transaction_id", length = 50)
+    private String transactionId;
+
+    @Column(name = "message", length = 500)
+    private String message;
+
+    @Column(name = "processed_amount", precision = 10, scale = 2)
+    private BigDecimal processedAmount;
+
+    @Column(name = "processing_fees", precision = 10, scale = 2)
+    private BigDecimal processingFees;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public PaymentIdempotencyKey() {
+        this.createdAt = LocalDateTime.now();
+        this.status = Status.PENDING;
+    }
+
+    public PaymentIdempotencyKey(String username, String idempotencyKey, String paymentId, Long bookingId,
+            BigDecimal amount, String paymentMethod) {
+        this();
+        this.username = username;
+        this.idempotencyKey = idempotencyKey;
+        this.paymentId = paymentId;
+        this.bookingId = bookingId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Boolean getSuccess() {
+        return success;
+    }
+
+    public void setSuccess(Boolean success) {
+        this.success = success;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public BigDecimal getProcessedAmount() {
+        return processedAmount;
+    }
+
+    public void setProcessedAmount(BigDecimal processedAmount) {
+        this.processedAmount = processedAmount;
+    }
+
+    public BigDecimal getProcessingFees() {
+        return processingFees;
+    }
+
+    public void setProcessingFees(BigDecimal processingFees) {
+        this.processingFees = processingFees;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // PENDING from submission until the payment finishes; TIMED_OUT means the outcome is unknown
+    public enum Status {
+        PENDING, SUCCEEDED, FAILED, TIMED_OUT
+    }
+}
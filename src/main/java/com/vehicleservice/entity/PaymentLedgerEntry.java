@@ -0,0 +1,120 @@
+package com.vehicleservice.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+// One append-only payment ledger row: a charge, a processing fee or a refund on a booking
+@Entity
+@Immutable
+@Table(name = "payment_ledger")
+public class PaymentLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_ledger_seq")
+    @SequenceGenerator(name = "payment_ledger_seq", sequenceName = "payment_ledger_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false, updatable = false)
+    private Long bookingId;
+
+    @Column(name = "booking_number", nullable = false, updatable = false, length = 50)
+    private String bookingNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, updatable = false, length = 20)
+    private EntryType entryType;
+
+    @Column(name = "payment_method", updatable = false, length = 50)
+    private String paymentMethod;
+
+    @Column(name = "amount", nullable = false, updatable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_id", updatable = false, length = 50)
+    private String transactionId;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+    // Constructors
+    protected PaymentLedgerEntry() {
+    }
+
+    private PaymentLedgerEntry(Booking booking, EntryType entryType, String paymentMethod, BigDecimal amount,
+            String transactionId) {
+        this.bookingId = booking.getId();
+        this.bookingNumber = booking.getBookingNumber();
+        this.entryType = entryType;
+        this.paymentMethod = paymentMethod != null && !paymentMethod.isBlank()
+                ? paymentMethod.trim().toUpperCase(Locale.ROOT)
+                : null;
+        this.amount = amount.setScale(2, RoundingMode.HALF_UP);
+        this.transactionId = transactionId;
+    }
+
+    // Stamped when the entry is saved at the end of the recording transaction, not when a strategy built it
+    @PrePersist
+    void stampRecordedAt() {
+        this.recordedAt = LocalDateTime.now();
+    }
+
+    // Money taken from the customer
+    public static PaymentLedgerEntry charge(Booking booking, String paymentMethod, BigDecimal amount,
+            String transactionId) {
+        return new PaymentLedgerEntry(booking, EntryType.CHARGE, paymentMethod, amount, transactionId);
+    }
+
+    // Processing fee charged by the payment provider for a charge
+    public static PaymentLedgerEntry fee(Booking booking, String paymentMethod, BigDecimal amount,
+            String transactionId) {
+        return new PaymentLedgerEntry(booking, EntryType.FEE, paymentMethod, amount, transactionId);
+    }
+
+    // Money returned to the customer
+    public static PaymentLedgerEntry refund(Booking booking, String paymentMethod, BigDecimal amount) {
+        return new PaymentLedgerEntry(booking, EntryType.REFUND, paymentMethod, amount, null);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public String getBookingNumber() {
+        return bookingNumber;
+    }
+
+    public EntryType getEntryType() {
+        return entryType;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    // Enum for ledger entry types
+    public enum EntryType {
+        CHARGE, FEE, REFUND
+    }
+}
@@ -0,0 +1,132 @@
+package com.vehicleservice.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Settled payment totals of one payment method for one day
+@Entity
+@Table(name = "payment_settlements")
+public class PaymentSettlement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_settlements_seq")
+    @SequenceGenerator(name = "payment_settlements_seq", sequenceName = "payment_settlements_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(name = "settlement_date", nullable = false)
+    private LocalDate settlementDate;
+
+    @Column(name = "payment_method", nullable = false, length = 50)
+    private String paymentMethod;
+
+    @Column(name = "charges", nullable = false, precision = 14, scale = 2)
+    private BigDecimal charges;
+
+    @Column(name = "fees", nullable = false, precision = 14, scale = 2)
+    private BigDecimal fees;
+
+    @Column(name = "refunds", nullable = false, precision = 14, scale = 2)
+    private BigDecimal refunds;
+
+    @Column(name = "net", nullable = false, precision = 14, scale = 2)
+    private BigDecimal net;
+
+    @Column(name = "entry_count", nullable = false)
+    private Integer entryCount;
+
+    @Column(name = "settled_at", nullable = false)
+    private LocalDateTime settledAt;
+
+    // Constructors
+    public PaymentSettlement() {
+    }
+
+    public PaymentSettlement(LocalDate settlementDate, String paymentMethod, BigDecimal charges, BigDecimal fees,
+            BigDecimal refunds, int entryCount) {
+        this.settlementDate = settlementDate;
+        this.paymentMethod = paymentMethod;
+        this.charges = charges;
+        this.fees = fees;
+        this.refunds = refunds;
+        this.net = charges.subtract(fees).subtract(refunds);
+        this.entryCount = entryCount;
+        this.settledAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getSettlementDate() {
+        return settlementDate;
+    }
+
+    public void setSettlementDate(LocalDate settlementDate) {
+        this.settlementDate = settlementDate;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public BigDecimal getCharges() {
+        return charges;
+    }
+
+    public void setCharges(BigDecimal charges) {
+        this.charges = charges;
+    }
+
+    public BigDecimal getFees() {
+        return fees;
+    }
+
+    public void setFees(BigDecimal fees) {
+        this.fees = fees;
+    }
+
+    public BigDecimal getRefunds() {
+        return refunds;
+    }
+
+    public void setRefunds(BigDecimal refunds) {
+        this.refunds = refunds;
+    }
+
+    public BigDecimal getNet() {
+        return net;
+    }
+
+    public void setNet(BigDecimal net) {
+        this.net = net;
+    }
+
+    public Integer getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(Integer entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public LocalDateTime getSettledAt() {
+        return settledAt;
+    }
+
+    public void setSettledAt(LocalDateTime settledAt) {
+        this.settledAt = settledAt;
+    }
+}
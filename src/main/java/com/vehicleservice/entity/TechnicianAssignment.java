@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Table(name = "technician_assignments")
 public class TechnicianAssignment extends BaseEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "technician_assignments_seq")
+    @SequenceGenerator(name = "technician_assignments_seq", sequenceName = "technician_assignments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -292,6 +292,10 @@ public class User extends BaseEntity implements UserDetails {
     public boolean isTechnician() {
         return role != null && "TECHNICIAN".equals(role.getRoleName());
     }
+
+    public boolean isCustomer() {
+        return role != null && "CUSTOMER".equals(role.getRoleName());
+    }
     
     // Convenience method for isActive
     public boolean isActive() {
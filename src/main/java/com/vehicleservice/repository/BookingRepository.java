@@ -2,35 +2,88 @@ package com.vehicleservice.repository;
 
 import com.vehicleservice.entity.Booking;
 import com.vehicleservice.entity.Booking.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 @org.springframework.context.annotation.Scope("singleton")
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
     List<Booking> findByPaymentStatus(PaymentStatus paymentStatus);
 
-    List<Booking> findByCustomerNameContainingIgnoreCase(String customerName);
+    // A customer's bookings by account id (IX_bookings_customer_id), one page at a time
+    Page<Booking> findByCustomerId(Long customerId, Pageable pageable);
 
-    List<Booking> findByVehicleNumberContainingIgnoreCase(String vehicleNumber);
+    // A customer's bookings in [startDate, endDate) that are not fully paid, soonest first
+    @Query("SELECT b FROM Booking b WHERE b.customerId = :customerId AND b.bookingDate >= :startDate " +
+            "AND b.bookingDate < :endDate AND b.paymentStatus <> :excludedStatus ORDER BY b.bookingDate, b.id")
+    List<Booking> findByCustomerIdAndDateRangeExcludingStatus(@Param("customerId") Long customerId,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+            @Param("excludedStatus") PaymentStatus excludedStatus, Pageable pageable);
+
+    // Bookings not yet linked to a customer account, in id order (read in batches by the backfill)
+    @Query("SELECT b.id, b.customerName FROM Booking b WHERE b.customerId IS NULL AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findUnlinkedAfterId(@Param("afterId") Long afterId, Pageable pageable);
 
-    List<Booking> findByBookingDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    // Detach a customer's bookings before the account is deleted (the bookings keep the customer name)
+    @Modifying
+    @Query("UPDATE Booking b SET b.customerId = NULL WHERE b.customerId = :customerId")
+    int unlinkCustomer(@Param("customerId") Long customerId);
 
-    @Query("SELECT b FROM Booking b WHERE " +
-            "b.customerName LIKE %:keyword% OR " +
-            "b.vehicleNumber LIKE %:keyword% OR " +
-            "b.serviceType LIKE %:keyword% OR " +
-            "b.bookingNumber LIKE %:keyword%")
-    List<Booking> findByKeyword(@Param("keyword") String keyword);
+    List<Booking> findByVehicleNumberContainingIgnoreCase(String vehicleNumber);
 
-    @Query("SELECT b FROM Booking b WHERE CAST(b.bookingDate AS date) = :bookingDate")
-    List<Booking> findByBookingDate(@Param("bookingDate") LocalDate bookingDate);
+    // Half-open range [startDate, endDate) so whole-day windows never overlap; seeks IX_bookings_booking_date
+    @Query("SELECT b FROM Booking b WHERE b.bookingDate >= :startDate AND b.bookingDate < :endDate")
+    List<Booking> findByBookingDateRange(@Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    // Bookings starting within [slotStart, slotEnd), not counting the booking being saved
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.bookingDate >= :slotStart AND b.bookingDate < :slotEnd " +
+            "AND b.id <> :excludeId")
+    long countBySlotExcluding(@Param("slotStart") LocalDateTime slotStart,
+            @Param("slotEnd") LocalDateTime slotEnd,
+            @Param("excludeId") Long excludeId);
+
+    // A booking read with a row lock held until the transaction ends (paid amount read, then written)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
+
+    // Stored booking date, service type and paid amount of a booking; pending changes to it are not
+    // flushed first, so a save can tell whether it moves the booking to another slot or changes what was paid
+    @Query("SELECT b.bookingDate, b.serviceType, b.paidAmount FROM Booking b WHERE b.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    List<Object[]> findStoredStateById(@Param("id") Long id);
+
+    // Searchable fields in id order, read in batches to build the booking search index
+    @Query("SELECT b.id, b.bookingNumber, b.vehicleNumber, b.customerName, b.serviceType, b.bookingDate " +
+            "FROM Booking b WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findSearchFieldsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Which of the given booking numbers are already taken (bulk import duplicate check)
+    @Query("SELECT b.bookingNumber FROM Booking b WHERE b.bookingNumber IN :bookingNumbers")
+    List<String> findExistingBookingNumbers(@Param("bookingNumbers") Collection<String> bookingNumbers);
+
+    // Bookings on one calendar day, as a range on the raw column so the booking_date index is usable
+    default List<Booking> findByBookingDate(LocalDate bookingDate) {
+        return findByBookingDateRange(bookingDate.atStartOfDay(), bookingDate.plusDays(1).atStartOfDay());
+    }
 
     // Payment method queries
     List<Booking> findByPaymentMethod(String paymentMethod);
@@ -46,6 +99,41 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.paymentMethod = :paymentMethod")
     Long countByPaymentMethod(@Param("paymentMethod") String paymentMethod);
 
+    // Dashboard counters in one pass: one row per payment status with the number of bookings in it and
+    // how many of those fall in each date bucket (today, the last 7 days onwards, the next 7 days)
+    String STATUS_COUNTS_SELECT = "SELECT b.paymentStatus AS status, COUNT(b) AS total, " +
+            "SUM(CASE WHEN b.bookingDate >= :todayStart AND b.bookingDate < :tomorrowStart THEN 1 ELSE 0 END) AS today, " +
+            "SUM(CASE WHEN b.bookingDate >= :recentStart THEN 1 ELSE 0 END) AS recent, " +
+            "SUM(CASE WHEN b.bookingDate >= :todayStart AND b.bookingDate < :upcomingEnd THEN 1 ELSE 0 END) AS upcoming " +
+            "FROM Booking b ";
+
+    @Query(STATUS_COUNTS_SELECT + "GROUP BY b.paymentStatus")
+    List<StatusCounts> countByStatusAndDateBuckets(@Param("todayStart") LocalDateTime todayStart,
+            @Param("tomorrowStart") LocalDateTime tomorrowStart, @Param("recentStart") LocalDateTime recentStart,
+            @Param("upcomingEnd") LocalDateTime upcomingEnd);
+
+    @Query(STATUS_COUNTS_SELECT + "WHERE b.customerId = :customerId GROUP BY b.paymentStatus")
+    List<StatusCounts> countByStatusAndDateBucketsForCustomer(@Param("customerId") Long customerId,
+            @Param("todayStart") LocalDateTime todayStart, @Param("tomorrowStart") LocalDateTime tomorrowStart,
+            @Param("recentStart") LocalDateTime recentStart, @Param("upcomingEnd") LocalDateTime upcomingEnd);
+
+    // Row of the status counters query
+    interface StatusCounts {
+        PaymentStatus getStatus();
+
+        long getTotal();
+
+        long getToday();
+
+        long getRecent();
+
+        long getUpcoming();
+    }
+
+    // Bookings without any technician assignment
+    @Query("SELECT COUNT(b) FROM Booking b WHERE NOT EXISTS (SELECT ta.id FROM TechnicianAssignment ta WHERE ta.booking = b)")
+    long countUnassigned();
+
     // Check if booking number exists
     boolean existsByBookingNumber(String bookingNumber);
 
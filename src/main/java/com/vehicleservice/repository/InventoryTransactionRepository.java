@@ -19,7 +19,10 @@ public interface InventoryTransactionRepository extends JpaRepository<InventoryT
 
     List<InventoryTransaction> findByStaff_Id(Long staffId);
 
-    List<InventoryTransaction> findByDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    // Half-open range [startDate, endDate) on the raw column (IX_inventory_transactions_date)
+    @Query("SELECT t FROM InventoryTransaction t WHERE t.date >= :startDate AND t.date < :endDate")
+    List<InventoryTransaction> findByDateRange(@Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
 
     @Query("SELECT t FROM InventoryTransaction t WHERE t.item.id = :itemId ORDER BY t.date DESC")
     List<InventoryTransaction> findByItemIdOrderByDateDesc(@Param("itemId") Long itemId);
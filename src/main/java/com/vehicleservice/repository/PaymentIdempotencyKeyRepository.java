@@ -0,0 +1,32 @@
+package com.vehicleservice.repository;
+
+import com.vehicleservice.entity.PaymentIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@org.springframework.stereotype.Repository
+@org.springframework.context.annotation.Scope("singleton")
+public interface PaymentIdempotencyKeyRepository extends JpaRepository<PaymentIdempotencyKey, Long> {
+
+    // Claim or stored outcome for a user's idempotency key
+    Optional<PaymentIdempotencyKey> findByUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    // Give up a pending claim on a key (the payment never reached its strategy)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PaymentIdempotencyKey k WHERE k.paymentId = :paymentId " +
+            "AND k.status = com.vehicleservice.entity.PaymentIdempotencyKey.Status.PENDING")
+    int deletePendingByPaymentId(@Param("paymentId") String paymentId);
+
+    // Purge keys recorded before the cutoff
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PaymentIdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
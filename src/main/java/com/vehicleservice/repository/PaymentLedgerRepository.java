@@ -0,0 +1,57 @@
+package com.vehicleservice.repository;
+
+import com.vehicleservice.entity.PaymentLedgerEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@org.springframework.stereotype.Repository
+@org.springframework.context.annotation.Scope("singleton")
+public interface PaymentLedgerRepository extends JpaRepository<PaymentLedgerEntry, Long> {
+
+    // Ledger entries of a booking, oldest first
+    List<PaymentLedgerEntry> findByBookingIdOrderByRecordedAtAscIdAsc(Long bookingId);
+
+    // Charges minus refunds of a booking (fees are not part of the booking's paid amount)
+    @Query("SELECT COALESCE(SUM(CASE WHEN e.entryType = :charge THEN e.amount ELSE -e.amount END), 0) " +
+            "FROM PaymentLedgerEntry e WHERE e.bookingId = :bookingId AND e.entryType IN (:charge, :refund)")
+    BigDecimal sumChargesMinusRefunds(@Param("bookingId") Long bookingId,
+            @Param("charge") PaymentLedgerEntry.EntryType charge,
+            @Param("refund") PaymentLedgerEntry.EntryType refund);
+
+    // Amount charged to a booking through the ledger and not refunded yet
+    default BigDecimal sumChargedNotRefunded(Long bookingId) {
+        return sumChargesMinusRefunds(bookingId, PaymentLedgerEntry.EntryType.CHARGE,
+                PaymentLedgerEntry.EntryType.REFUND);
+    }
+
+    // Earliest entry time, where settlement starts when nothing has been settled yet
+    @Query("SELECT MIN(e.recordedAt) FROM PaymentLedgerEntry e")
+    LocalDateTime findFirstRecordedAt();
+
+    // Entries recorded in [start, end) as plain columns read through a cursor, so they are not
+    // held in the persistence context. The stream must be consumed (and closed) inside a transaction.
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT e.entryType AS entryType, e.paymentMethod AS paymentMethod, e.amount AS amount " +
+            "FROM PaymentLedgerEntry e WHERE e.recordedAt >= :start AND e.recordedAt < :end")
+    Stream<SettlementRow> streamForSettlement(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    // One row of streamForSettlement
+    interface SettlementRow {
+        PaymentLedgerEntry.EntryType getEntryType();
+
+        String getPaymentMethod();
+
+        BigDecimal getAmount();
+    }
+}
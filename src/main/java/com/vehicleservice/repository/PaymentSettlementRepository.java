@@ -0,0 +1,28 @@
+package com.vehicleservice.repository;
+
+import com.vehicleservice.entity.PaymentSettlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@org.springframework.stereotype.Repository
+@org.springframework.context.annotation.Scope("singleton")
+public interface PaymentSettlementRepository extends JpaRepository<PaymentSettlement, Long> {
+
+    // Settlements in a date range, by day then method
+    List<PaymentSettlement> findBySettlementDateBetweenOrderBySettlementDateAscPaymentMethodAsc(LocalDate from,
+            LocalDate to);
+
+    // Latest settled day
+    @Query("SELECT MAX(s.settlementDate) FROM PaymentSettlement s")
+    LocalDate findLastSettlementDate();
+
+    // Remove a day's settlement before it is settled again
+    @Modifying
+    @Query("DELETE FROM PaymentSettlement s WHERE s.settlementDate = :day")
+    int deleteBySettlementDay(@Param("day") LocalDate day);
+}
@@ -4,14 +4,19 @@ import com.vehicleservice.entity.Booking;
 import com.vehicleservice.entity.Technician;
 import com.vehicleservice.entity.TechnicianAssignment;
 import com.vehicleservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @org.springframework.context.annotation.Scope("singleton")
@@ -29,9 +34,10 @@ public interface TechnicianAssignmentRepository extends JpaRepository<Technician
     // Find assignments by status
     List<TechnicianAssignment> findByStatusOrderByAssignmentDateDesc(TechnicianAssignment.AssignmentStatus status);
 
-    // Find assignments for a date range
-    List<TechnicianAssignment> findByAssignmentDateBetweenOrderByAssignmentDateDesc(LocalDateTime startDate,
-            LocalDateTime endDate);
+    // Find assignments for a date range [startDate, endDate)
+    @Query("SELECT ta FROM TechnicianAssignment ta WHERE ta.assignmentDate >= :startDate AND ta.assignmentDate < :endDate ORDER BY ta.assignmentDate DESC")
+    List<TechnicianAssignment> findByAssignmentDateRange(@Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
 
     // Find active assignments for a technician
     @Query("SELECT ta FROM TechnicianAssignment ta WHERE ta.technician = :technician AND ta.status IN ('ASSIGNED', 'IN_PROGRESS') ORDER BY ta.assignmentDate DESC")
@@ -45,8 +51,8 @@ public interface TechnicianAssignmentRepository extends JpaRepository<Technician
     long countByTechnicianAndStatus(@Param("technician") Technician technician,
             @Param("status") TechnicianAssignment.AssignmentStatus status);
 
-    // Find assignments by technician and date range
-    @Query("SELECT ta FROM TechnicianAssignment ta WHERE ta.technician = :technician AND ta.assignmentDate >= :startDate AND ta.assignmentDate <= :endDate ORDER BY ta.assignmentDate DESC")
+    // Find assignments by technician and date range [startDate, endDate)
+    @Query("SELECT ta FROM TechnicianAssignment ta WHERE ta.technician = :technician AND ta.assignmentDate >= :startDate AND ta.assignmentDate < :endDate ORDER BY ta.assignmentDate DESC")
     List<TechnicianAssignment> findByTechnicianAndDateRange(@Param("technician") Technician technician,
             @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
@@ -62,9 +68,82 @@ public interface TechnicianAssignmentRepository extends JpaRepository<Technician
     // Find assignments by booking ID
     List<TechnicianAssignment> findByBooking_Id(Long bookingId);
 
+    // Count assignments of a booking
+    long countByBooking_Id(Long bookingId);
+
     // Find assignment by booking ID and technician ID
     Optional<TechnicianAssignment> findByBooking_IdAndTechnician_Id(Long bookingId, Long technicianId);
 
     // Delete assignments by booking ID
     void deleteByBooking_Id(Long bookingId);
+
+    // Assignments of several bookings with booking, technician (and its user) and assigning user loaded
+    // in the same statement, latest assignment of each booking first
+    @Query("SELECT ta FROM TechnicianAssignment ta JOIN FETCH ta.booking b JOIN FETCH ta.technician t " +
+            "JOIN FETCH t.user JOIN FETCH ta.assignedBy WHERE b.id IN :bookingIds " +
+            "ORDER BY ta.assignmentDate DESC, ta.id DESC")
+    List<TechnicianAssignment> findByBookingIdsWithDetails(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Assignment counters per status, split into assignment date buckets, in one grouped query.
+    // The inner join on booking leaves out assignments whose booking no longer exists.
+    @Query("SELECT ta.status AS status, COUNT(ta) AS total, " +
+            "SUM(CASE WHEN ta.assignmentDate > :todayStart THEN 1 ELSE 0 END) AS today, " +
+            "SUM(CASE WHEN ta.assignmentDate > :weekStart THEN 1 ELSE 0 END) AS week, " +
+            "SUM(CASE WHEN ta.assignmentDate > :monthStart THEN 1 ELSE 0 END) AS month " +
+            "FROM TechnicianAssignment ta JOIN ta.booking b GROUP BY ta.status")
+    List<StatusCounts> countByStatusAndDateBuckets(@Param("todayStart") LocalDateTime todayStart,
+            @Param("weekStart") LocalDateTime weekStart,
+            @Param("monthStart") LocalDateTime monthStart);
+
+    // Export rows, newest first, as plain columns joined in one statement and read through a cursor;
+    // null filters are not applied. The stream must be consumed (and closed) inside a transaction.
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT ta.id AS id, b.bookingNumber AS bookingNumber, b.customerName AS customerName, " +
+            "tu.firstName AS technicianFirstName, tu.lastName AS technicianLastName, " +
+            "ab.firstName AS assignedByFirstName, ab.lastName AS assignedByLastName, " +
+            "ta.assignmentDate AS assignmentDate, ta.status AS status, ta.notes AS notes " +
+            "FROM TechnicianAssignment ta JOIN ta.booking b JOIN ta.technician t JOIN t.user tu " +
+            "JOIN ta.assignedBy ab " +
+            "WHERE (:start IS NULL OR ta.assignmentDate >= :start) AND (:end IS NULL OR ta.assignmentDate < :end) " +
+            "AND (:status IS NULL OR ta.status = :status) " +
+            "ORDER BY ta.assignmentDate DESC, ta.id DESC")
+    Stream<ExportRow> streamForExport(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+            @Param("status") TechnicianAssignment.AssignmentStatus status);
+
+    // One row of streamForExport
+    interface ExportRow {
+        Long getId();
+
+        String getBookingNumber();
+
+        String getCustomerName();
+
+        String getTechnicianFirstName();
+
+        String getTechnicianLastName();
+
+        String getAssignedByFirstName();
+
+        String getAssignedByLastName();
+
+        LocalDateTime getAssignmentDate();
+
+        TechnicianAssignment.AssignmentStatus getStatus();
+
+        String getNotes();
+    }
+
+    // One row of countByStatusAndDateBuckets
+    interface StatusCounts {
+        TechnicianAssignment.AssignmentStatus getStatus();
+
+        long getTotal();
+
+        long getToday();
+
+        long getWeek();
+
+        long getMonth();
+    }
 }
@@ -26,6 +26,10 @@ public interface TechnicianRepository extends JpaRepository<Technician, Long> {
     // Find active technicians
     List<Technician> findByIsActiveTrue();
 
+    // Find active technicians with their user accounts loaded in the same statement
+    @Query("SELECT t FROM Technician t JOIN FETCH t.user WHERE t.isActive = true")
+    List<Technician> findActiveWithUser();
+
     // Find technicians by specialization
     List<Technician> findBySpecializationAndIsActiveTrue(String specialization);
 
@@ -32,6 +32,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
         List<User> findByRoleRoleName(String roleName);
 
+        // Customer accounts whose "first last" name equals the given name (as stored on bookings)
+        @Query("SELECT u.id FROM User u WHERE u.role.roleName = 'CUSTOMER' AND CONCAT(u.firstName, ' ', u.lastName) = :fullName")
+        List<Long> findCustomerIdsByFullName(@Param("fullName") String fullName);
+
         @Query("SELECT u FROM User u WHERE u.username LIKE %:keyword% OR u.email LIKE %:keyword%")
         List<User> findByUsernameOrEmailContaining(@Param("keyword") String keyword);
 
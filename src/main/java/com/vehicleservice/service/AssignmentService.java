@@ -5,14 +5,27 @@ import com.vehicleservice.repository.TechnicianRepository;
 import com.vehicleservice.repository.TechnicianAssignmentRepository;
 import com.vehicleservice.repository.BookingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -28,6 +41,9 @@ public class AssignmentService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ==================== TECHNICIAN MANAGEMENT ====================
 
     /// Create a new technician with user account
@@ -48,7 +64,7 @@ public class AssignmentService {
 
     /// Get all active technicians
     public List<Technician> getAllActiveTechnicians() {
-        return technicianRepository.findByIsActiveTrue();
+        return technicianRepository.findActiveWithUser();
     }
 
     /// Get the maximum employee ID for generating next ID
@@ -127,7 +143,11 @@ public class AssignmentService {
             technician.setUpdatedAt(LocalDateTime.now());
             technicianRepository.save(technician);
 
-            return assignmentRepository.save(assignment);
+            boolean firstForBooking = assignmentRepository.countByBooking_Id(bookingId) == 0;
+            TechnicianAssignment savedAssignment = assignmentRepository.save(assignment);
+            eventPublisher.publishEvent(ManagerDashboardChangedEvent.assignmentAdded(
+                    savedAssignment.getStatus(), savedAssignment.getAssignmentDate(), firstForBooking));
+            return savedAssignment;
         }
         throw new RuntimeException("Booking or technician not found");
     }
@@ -162,7 +182,11 @@ public class AssignmentService {
             technician.setUpdatedAt(LocalDateTime.now());
             technicianRepository.save(technician);
 
-            return assignmentRepository.save(assignment);
+            boolean firstForBooking = assignmentRepository.countByBooking_Id(bookingId) == 0;
+            TechnicianAssignment savedAssignment = assignmentRepository.save(assignment);
+            eventPublisher.publishEvent(ManagerDashboardChangedEvent.assignmentAdded(
+                    savedAssignment.getStatus(), savedAssignment.getAssignmentDate(), firstForBooking));
+            return savedAssignment;
         }
         throw new RuntimeException("Booking or technician not found");
     }
@@ -182,6 +206,72 @@ public class AssignmentService {
         return assignmentRepository.findByBooking_Id(bookingId);
     }
 
+    /// Latest assignment of each of the given bookings, keyed by booking id, fetched in one query
+    /// together with its technician and assigning user
+    @Transactional(readOnly = true)
+    public Map<Long, TechnicianAssignment> getLatestAssignmentsByBookings(Collection<Long> bookingIds) {
+        Map<Long, TechnicianAssignment> latest = new LinkedHashMap<>();
+        if (bookingIds.isEmpty()) {
+            return latest;
+        }
+        // Rows come latest first, so the first row seen per booking is the current one
+        for (TechnicianAssignment assignment : assignmentRepository.findByBookingIdsWithDetails(bookingIds)) {
+            latest.putIfAbsent(assignment.getBooking().getId(), assignment);
+        }
+        return latest;
+    }
+
+    /// Write assignments as CSV, row by row from a database cursor, so memory use does not depend on the
+    /// number of rows. Dates are inclusive; null filters are not applied.
+    @Transactional(readOnly = true)
+    public void exportAssignmentsCsv(LocalDate from, LocalDate to, TechnicianAssignment.AssignmentStatus status,
+            OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("Assignment ID,Booking Number,Customer,Technician,Assigned By,Assignment Date,Status,Notes\r\n");
+        try (Stream<TechnicianAssignmentRepository.ExportRow> rows = assignmentRepository.streamForExport(
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                status)) {
+            Iterator<TechnicianAssignmentRepository.ExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TechnicianAssignmentRepository.ExportRow row = iterator.next();
+                writer.write(String.valueOf(row.getId()));
+                writer.write(',');
+                writer.write(csvField(row.getBookingNumber()));
+                writer.write(',');
+                writer.write(csvField(row.getCustomerName()));
+                writer.write(',');
+                writer.write(csvField(row.getTechnicianFirstName() + " " + row.getTechnicianLastName()));
+                writer.write(',');
+                writer.write(csvField(row.getAssignedByFirstName() + " " + row.getAssignedByLastName()));
+                writer.write(',');
+                writer.write(String.valueOf(row.getAssignmentDate()));
+                writer.write(',');
+                writer.write(String.valueOf(row.getStatus()));
+                writer.write(',');
+                writer.write(csvField(row.getNotes()));
+                writer.write("\r\n");
+            }
+        }
+        writer.flush();
+    }
+
+    // RFC 4180 quoting; text starting with a formula character is prefixed with ' so spreadsheets
+    // show it instead of evaluating it
+    private static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        if ("=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
     /// Get assignment by ID
     public Optional<TechnicianAssignment> getAssignmentById(Long id) {
         return assignmentRepository.findById(id);
@@ -193,8 +283,11 @@ public class AssignmentService {
         Optional<TechnicianAssignment> assignmentOpt = assignmentRepository.findById(assignmentId);
         if (assignmentOpt.isPresent()) {
             TechnicianAssignment assignment = assignmentOpt.get();
+            TechnicianAssignment.AssignmentStatus previousStatus = assignment.getStatus();
             assignment.setStatus(status);
             assignment.setUpdatedAt(LocalDateTime.now());
+            eventPublisher.publishEvent(ManagerDashboardChangedEvent.assignmentChanged(previousStatus,
+                    assignment.getAssignmentDate(), status, assignment.getAssignmentDate()));
             return assignmentRepository.save(assignment);
         }
         throw new RuntimeException("Assignment not found");
@@ -203,6 +296,8 @@ public class AssignmentService {
     /// Update assignment
     public TechnicianAssignment updateAssignment(TechnicianAssignment assignment) {
         assignment.setUpdatedAt(LocalDateTime.now());
+        // Callers change the assignment before passing it in, so its previous status and date are unknown
+        eventPublisher.publishEvent(ManagerDashboardChangedEvent.resyncRequired());
         return assignmentRepository.save(assignment);
     }
 
@@ -211,6 +306,9 @@ public class AssignmentService {
         Optional<TechnicianAssignment> assignmentOpt = assignmentRepository.findById(assignmentId);
         if (assignmentOpt.isPresent()) {
             TechnicianAssignment assignment = assignmentOpt.get();
+            eventPublisher.publishEvent(ManagerDashboardChangedEvent.assignmentChanged(assignment.getStatus(),
+                    assignment.getAssignmentDate(), TechnicianAssignment.AssignmentStatus.COMPLETED,
+                    assignment.getAssignmentDate()));
             assignment.setStatus(TechnicianAssignment.AssignmentStatus.COMPLETED);
             assignment.setUpdatedAt(LocalDateTime.now());
 
@@ -237,7 +335,10 @@ public class AssignmentService {
             technician.setUpdatedAt(LocalDateTime.now());
             technicianRepository.save(technician);
 
+            boolean lastForBooking = assignmentRepository.countByBooking_Id(assignment.getBooking().getId()) == 1;
             assignmentRepository.deleteById(assignmentId);
+            eventPublisher.publishEvent(ManagerDashboardChangedEvent.assignmentRemoved(assignment.getStatus(),
+                    assignment.getAssignmentDate(), lastForBooking));
             return true;
         }
         return false;
@@ -246,12 +347,15 @@ public class AssignmentService {
     /// Delete assignments by booking
     public void deleteAssignmentsByBooking(Long bookingId) {
         List<TechnicianAssignment> assignments = assignmentRepository.findByBooking_Id(bookingId);
-        for (TechnicianAssignment assignment : assignments) {
+        for (int i = 0; i < assignments.size(); i++) {
+            TechnicianAssignment assignment = assignments.get(i);
             // Update technician workload
             Technician technician = assignment.getTechnician();
             technician.setCurrentWorkload(Math.max(0, technician.getCurrentWorkload() - 1));
             technician.setUpdatedAt(LocalDateTime.now());
             technicianRepository.save(technician);
+            eventPublisher.publishEvent(ManagerDashboardChangedEvent.assignmentRemoved(assignment.getStatus(),
+                    assignment.getAssignmentDate(), i == assignments.size() - 1));
         }
         assignmentRepository.deleteByBooking_Id(bookingId);
     }
@@ -325,6 +429,9 @@ public class AssignmentService {
                 cleanedCount++;
             }
         }
+        if (cleanedCount > 0) {
+            eventPublisher.publishEvent(ManagerDashboardChangedEvent.resyncRequired());
+        }
         return cleanedCount;
     }
 
@@ -416,5 +523,4 @@ public class AssignmentService {
             this.cancelledCount = cancelledCount;
         }
     }
-
 }
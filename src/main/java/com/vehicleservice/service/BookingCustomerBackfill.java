@@ -0,0 +1,78 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Links bookings created before bookings.customer_id existed to their customer account.
+// Runs once per startup in the background, reading unlinked rows in id order and writing each batch
+// with one JDBC batch; bookings whose name matches no customer, or several, stay unlinked.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class BookingCustomerBackfill {
+
+    // Unlinked rows read and updated per round trip
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Start after the application (and sample data initialization) is up, so startup is not delayed
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread worker = new Thread(this::run, "booking-customer-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /// Link every unlinked booking whose customer name identifies exactly one customer account
+    public synchronized void run() {
+        try {
+            Map<String, Long> customerIds = userService.getCustomerIdsByFullName();
+            long linked = 0;
+            long unmatched = 0;
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = bookingRepository.findUnlinkedAfterId(afterId, PageRequest.of(0, BATCH_SIZE));
+                List<Object[]> updates = new ArrayList<>();
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    Long customerId = customerIds.get(UserService.fullNameKey((String) row[1]));
+                    if (customerId != null) {
+                        updates.add(new Object[] { customerId, row[0] });
+                    } else {
+                        unmatched++;
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    // Rows linked by a concurrent save in the meantime keep the value they were given
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE bookings SET customer_id = ? WHERE id = ? AND customer_id IS NULL", updates);
+                    linked += updates.size();
+                }
+            } while (rows.size() == BATCH_SIZE);
+
+            if (linked > 0 || unmatched > 0) {
+                System.out.println("Booking customer backfill: linked " + linked + " bookings, "
+                        + unmatched + " left unlinked (no unique customer with that name)");
+            }
+        } catch (Exception e) {
+            System.err.println("Booking customer backfill failed: " + e.getMessage());
+        }
+    }
+}
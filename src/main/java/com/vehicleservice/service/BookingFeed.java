@@ -0,0 +1,207 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.entity.Booking;
+import com.vehicleservice.entity.Booking.PaymentStatus;
+import com.vehicleservice.entity.TechnicianAssignment;
+import com.vehicleservice.repository.BookingRepository;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keyset (seek) pagination over bookings, newest first by (booking_date, id).
+// A page is fetched by seeking past the last row of the previous one, so every page costs the same
+// index seek no matter how deep the reader is, and rows inserted meanwhile never shift the pages.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class BookingFeed {
+
+    // Feed order; id breaks ties between bookings in the same slot so the key is unique
+    private static final Sort FEED_ORDER = Sort.by(Sort.Order.desc("bookingDate"), Sort.Order.desc("id"));
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Separates the booking date and id in a cursor, e.g. "2025-10-20T09:30~42"
+    private static final String CURSOR_SEPARATOR = "~";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    /// One page of the feed: the page after the cursor "after" (older bookings), the page before the
+    /// cursor "before" (newer bookings), or the newest page when neither is given
+    public FeedPage getPage(Filter filter, String after, String before, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        boolean backward = (after == null || after.isBlank()) && before != null && !before.isBlank();
+        ScrollPosition position;
+        if (backward) {
+            position = ScrollPosition.backward(decodeCursor(before));
+        } else if (after != null && !after.isBlank()) {
+            position = ScrollPosition.forward(decodeCursor(after));
+        } else {
+            position = ScrollPosition.keyset();
+        }
+
+        Window<Booking> window = bookingRepository.findBy(toSpecification(filter),
+                query -> query.sortBy(FEED_ORDER).limit(limit).scroll(position));
+        List<Booking> content = window.getContent();
+        if (content.isEmpty()) {
+            return new FeedPage(content, null, null, limit);
+        }
+
+        // Scrolling backward, the window's "next" is the next page towards the newest booking
+        boolean hasOlder = backward || window.hasNext();
+        boolean hasNewer = backward ? window.hasNext() : !position.isInitial();
+        return new FeedPage(content,
+                hasOlder ? encodeCursor(content.get(content.size() - 1)) : null,
+                hasNewer ? encodeCursor(content.get(0)) : null,
+                limit);
+    }
+
+    // Only the filters that are set become predicates, so an unfiltered page is a plain range seek
+    private static Specification<Booking> toSpecification(Filter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("paymentStatus"), filter.getStatus()));
+            }
+            if (filter.getServiceType() != null) {
+                predicates.add(cb.equal(root.get("serviceType"), filter.getServiceType()));
+            }
+            // Date window [dateFrom, dateTo + 1 day) on the raw column
+            if (filter.getDateFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("bookingDate"),
+                        filter.getDateFrom().atStartOfDay()));
+            }
+            if (filter.getDateTo() != null) {
+                predicates.add(cb.lessThan(root.<LocalDateTime>get("bookingDate"),
+                        filter.getDateTo().plusDays(1).atStartOfDay()));
+            }
+            if (filter.getAssigned() != null) {
+                Subquery<Long> assignments = query.subquery(Long.class);
+                Root<TechnicianAssignment> assignment = assignments.from(TechnicianAssignment.class);
+                assignments.select(assignment.get("id")).where(cb.equal(assignment.get("booking"), root));
+                predicates.add(filter.getAssigned() ? cb.exists(assignments) : cb.not(cb.exists(assignments)));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String encodeCursor(Booking booking) {
+        return booking.getBookingDate() + CURSOR_SEPARATOR + booking.getId();
+    }
+
+    private static Map<String, Object> decodeCursor(String cursor) {
+        int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+        try {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("bookingDate", LocalDateTime.parse(cursor.substring(0, separator)));
+            keys.put("id", Long.valueOf(cursor.substring(separator + 1)));
+            return keys;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+    }
+
+    // Feed filters; null fields are not applied
+    public static class Filter {
+        private final PaymentStatus status;
+        private final String serviceType;
+        private final LocalDate dateFrom;
+        private final LocalDate dateTo;
+        private final Boolean assigned;
+
+        public Filter(PaymentStatus status, String serviceType, LocalDate dateFrom, LocalDate dateTo,
+                Boolean assigned) {
+            this.status = status;
+            this.serviceType = serviceType != null && !serviceType.isBlank() ? serviceType : null;
+            this.dateFrom = dateFrom;
+            this.dateTo = dateTo;
+            this.assigned = assigned;
+        }
+
+        /// All bookings
+        public static Filter none() {
+            return new Filter(null, null, null, null, null);
+        }
+
+        /// Bookings with (true) or without (false) a technician assignment
+        public static Filter byAssignment(boolean assigned) {
+            return new Filter(null, null, null, null, assigned);
+        }
+
+        public PaymentStatus getStatus() {
+            return status;
+        }
+
+        public String getServiceType() {
+            return serviceType;
+        }
+
+        public LocalDate getDateFrom() {
+            return dateFrom;
+        }
+
+        public LocalDate getDateTo() {
+            return dateTo;
+        }
+
+        public Boolean getAssigned() {
+            return assigned;
+        }
+    }
+
+    // One page of bookings with the cursors of its neighbouring pages (null when there is none)
+    public static class FeedPage {
+        private final List<Booking> content;
+        private final String olderCursor;
+        private final String newerCursor;
+        private final int size;
+
+        public FeedPage(List<Booking> content, String olderCursor, String newerCursor, int size) {
+            this.content = content;
+            this.olderCursor = olderCursor;
+            this.newerCursor = newerCursor;
+            this.size = size;
+        }
+
+        public List<Booking> getContent() {
+            return content;
+        }
+
+        public String getOlderCursor() {
+            return olderCursor;
+        }
+
+        public String getNewerCursor() {
+            return newerCursor;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public boolean isHasOlder() {
+            return olderCursor != null;
+        }
+
+        public boolean isHasNewer() {
+            return newerCursor != null;
+        }
+    }
+}
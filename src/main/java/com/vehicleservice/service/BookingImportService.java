@@ -0,0 +1,513 @@
+package com.vehicleservice.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleservice.entity.Booking;
+import com.vehicleservice.entity.User;
+import com.vehicleservice.repository.BookingRepository;
+import com.vehicleservice.strategy.PricingStrategyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Bulk booking import from CSV or a JSON array. Records are parsed one at a time, validated and priced
+// with the pricing strategies, and written in fixed-size batches, each in its own transaction, so memory
+// use does not grow with the file. Invalid rows are reported by record number and do not stop the import.
+@Service
+@org.springframework.context.annotation.Scope("singleton")
+public class BookingImportService {
+
+    // Rows written per transaction
+    private static final int BATCH_SIZE = 500;
+
+    // Row errors listed in the report; further errors are only counted
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    // Import fields; CSV headers and JSON keys are matched case-insensitively
+    private static final List<String> FIELDS = List.of("bookingNumber", "customerName", "customerId",
+            "vehicleNumber", "serviceType", "bookingDate", "additionalCharges", "paymentMethod", "paidAmount",
+            "notes");
+    private static final List<String> REQUIRED_FIELDS = List.of("customerName", "vehicleNumber", "serviceType",
+            "bookingDate");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingNumberAllocator bookingNumberAllocator;
+
+    @Autowired
+    private PricingStrategyManager pricingStrategyManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /// Import bookings from CSV with a header row naming the columns
+    public ImportReport importCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV file is empty");
+        }
+        List<String> columns = new ArrayList<>();
+        for (String name : header) {
+            columns.add(fieldName(name));
+        }
+        for (String required : REQUIRED_FIELDS) {
+            if (!columns.contains(required)) {
+                throw new IllegalArgumentException("Missing required column: " + required);
+            }
+        }
+
+        ImportRun run = new ImportRun();
+        try {
+            List<String> values;
+            while ((values = csv.next()) != null) {
+                // Record numbers count data records; the header is record 0
+                int recordNumber = csv.getRecordNumber();
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+                if (values.size() != columns.size()) {
+                    run.reject(recordNumber, "Expected " + columns.size() + " values but found " + values.size());
+                    continue;
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    fields.put(columns.get(i), values.get(i));
+                }
+                run.accept(recordNumber, fields);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            run.abort(csv.getRecordNumber(), e.getMessage());
+        }
+        return run.finish();
+    }
+
+    /// Import bookings from a JSON array of objects keyed by the import field names
+    public ImportReport importJson(InputStream input) throws IOException {
+        ImportRun run = new ImportRun();
+        int recordNumber = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of bookings");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                recordNumber++;
+                if (token == null) {
+                    run.abort(recordNumber, "unexpected end of input");
+                    break;
+                }
+                // Only the current record is materialized
+                JsonNode record = objectMapper.readTree(parser);
+                if (!record.isObject()) {
+                    run.reject(recordNumber, "Expected a JSON object");
+                    continue;
+                }
+                Map<String, String> fields = new HashMap<>();
+                try {
+                    Iterator<Map.Entry<String, JsonNode>> entries = record.fields();
+                    while (entries.hasNext()) {
+                        Map.Entry<String, JsonNode> entry = entries.next();
+                        JsonNode value = entry.getValue();
+                        fields.put(fieldName(entry.getKey()), value.isNull() ? null : value.asText());
+                    }
+                } catch (IllegalArgumentException e) {
+                    run.reject(recordNumber, e.getMessage());
+                    continue;
+                }
+                run.accept(recordNumber, fields);
+            }
+        } catch (JsonProcessingException e) {
+            run.abort(recordNumber, e.getOriginalMessage());
+        }
+        return run.finish();
+    }
+
+    private static String fieldName(String name) {
+        String trimmed = name == null ? "" : name.trim();
+        for (String field : FIELDS) {
+            if (field.equalsIgnoreCase(trimmed)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + trimmed);
+    }
+
+    // State of one import: lookup data loaded once, the pending batch and the report
+    private class ImportRun {
+        private final ImportReport report = new ImportReport();
+        private final Set<Long> customerIds = new HashSet<>();
+        private final Map<String, Long> customerIdsByName = userService.getCustomerIdsByFullName();
+        private final Set<String> paymentMethods = new HashSet<>(bookingService.getSupportedPaymentMethods());
+
+        private final List<Booking> batch = new ArrayList<>(BATCH_SIZE);
+        private final List<Integer> batchRecords = new ArrayList<>(BATCH_SIZE);
+        private final Set<String> batchNumbers = new HashSet<>();
+
+        ImportRun() {
+            for (User customer : userService.getUsersByRole("CUSTOMER")) {
+                customerIds.add(customer.getId());
+            }
+        }
+
+        void accept(int recordNumber, Map<String, String> fields) {
+            report.totalRows++;
+            Booking booking;
+            try {
+                booking = toBooking(fields);
+            } catch (IllegalArgumentException e) {
+                report.addError(recordNumber, e.getMessage());
+                return;
+            }
+            if (!batchNumbers.add(booking.getBookingNumber())) {
+                report.addError(recordNumber, "Duplicate booking number: " + booking.getBookingNumber());
+                return;
+            }
+            batch.add(booking);
+            batchRecords.add(recordNumber);
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(int recordNumber, String message) {
+            report.totalRows++;
+            report.addError(recordNumber, message);
+        }
+
+        // Unreadable input: the record is reported and nothing after it is read
+        void abort(int recordNumber, String message) {
+            reject(recordNumber, "Import stopped, unreadable input: " + message);
+            report.aborted = true;
+        }
+
+        ImportReport finish() {
+            flush();
+            return report;
+        }
+
+        // Write the pending batch; if the batch fails, its rows are retried one by one to find the bad ones
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Booking> toSave = new ArrayList<>(batch.size());
+            List<Integer> toSaveRecords = new ArrayList<>(batch.size());
+            Set<String> taken = new HashSet<>(bookingRepository.findExistingBookingNumbers(batchNumbers));
+            for (int i = 0; i < batch.size(); i++) {
+                Booking booking = batch.get(i);
+                if (taken.contains(booking.getBookingNumber())) {
+                    report.addError(batchRecords.get(i), "Booking number already exists: " + booking.getBookingNumber());
+                } else {
+                    toSave.add(booking);
+                    toSaveRecords.add(batchRecords.get(i));
+                }
+            }
+
+            try {
+                bookingService.saveImportedBatch(toSave);
+                report.imported += toSave.size();
+            } catch (RuntimeException batchFailure) {
+                for (int i = 0; i < toSave.size(); i++) {
+                    Booking booking = toSave.get(i);
+                    // Ids handed out by the rolled back batch are discarded so the row is inserted as new
+                    booking.setId(null);
+                    try {
+                        bookingService.saveImportedBatch(List.of(booking));
+                        report.imported++;
+                    } catch (RuntimeException rowFailure) {
+                        report.addError(toSaveRecords.get(i), "Could not save booking: " + rootMessage(rowFailure));
+                    }
+                }
+            }
+
+            batch.clear();
+            batchRecords.clear();
+            batchNumbers.clear();
+        }
+
+        private Booking toBooking(Map<String, String> fields) {
+            Booking booking = new Booking();
+            booking.setCustomerName(required(fields, "customerName", 100));
+            booking.setVehicleNumber(required(fields, "vehicleNumber", 20));
+            String serviceType = required(fields, "serviceType", 100);
+            booking.setServiceType(serviceType);
+            booking.setBookingDate(parseDateTime(required(fields, "bookingDate", 50)));
+            booking.setNotes(optional(fields, "notes", 1000));
+
+            String bookingNumber = optional(fields, "bookingNumber", 50);
+            booking.setBookingNumber(bookingNumber != null ? bookingNumber : bookingNumberAllocator.nextBookingNumber());
+
+            String customerId = optional(fields, "customerId", 20);
+            if (customerId != null) {
+                Long id = parseLong(customerId, "customerId");
+                if (!customerIds.contains(id)) {
+                    throw new IllegalArgumentException("Customer not found: " + customerId);
+                }
+                booking.setCustomerId(id);
+            } else {
+                booking.setCustomerId(customerIdsByName.get(UserService.fullNameKey(booking.getCustomerName())));
+            }
+
+            // Price from the service type's pricing strategy; an explicit additionalCharges replaces the
+            // strategy's charges
+            PricingStrategyManager.PricingResult pricing = pricingStrategyManager.calculateCompletePricing(serviceType);
+            String additionalCharges = optional(fields, "additionalCharges", 20);
+            booking.setServicePrice(pricing.getBasePrice());
+            booking.setAdditionalCharges(additionalCharges != null
+                    ? parseAmount(additionalCharges, "additionalCharges")
+                    : pricing.getAdditionalCharges());
+            booking.calculateTotalPrice();
+
+            String paymentMethod = optional(fields, "paymentMethod", 50);
+            if (paymentMethod != null) {
+                paymentMethod = paymentMethod.toUpperCase(Locale.ROOT);
+                if (!paymentMethods.contains(paymentMethod)) {
+                    throw new IllegalArgumentException("Unsupported payment method: " + paymentMethod);
+                }
+                booking.setPaymentMethod(paymentMethod);
+                // Processing fees as on the booking form
+                if (!paymentMethod.equals("CASH")) {
+                    BigDecimal feeBase = booking.getServicePrice().add(booking.getAdditionalCharges());
+                    booking.setTotalPrice(booking.getTotalPrice()
+                            .add(bookingService.calculateProcessingFees(feeBase, paymentMethod)));
+                }
+            }
+
+            String paidAmount = optional(fields, "paidAmount", 20);
+            BigDecimal paid = paidAmount != null ? parseAmount(paidAmount, "paidAmount") : BigDecimal.ZERO;
+            booking.setPaidAmount(paid);
+            if (paid.compareTo(booking.getTotalPrice()) >= 0) {
+                booking.setPaymentStatus(Booking.PaymentStatus.PAID);
+                booking.setRemainingAmount(BigDecimal.ZERO);
+            } else if (paid.compareTo(BigDecimal.ZERO) > 0) {
+                booking.setPaymentStatus(Booking.PaymentStatus.PARTIAL);
+                booking.setRemainingAmount(booking.getTotalPrice().subtract(paid));
+            } else {
+                booking.setPaymentStatus(Booking.PaymentStatus.PENDING);
+                booking.setRemainingAmount(booking.getTotalPrice());
+            }
+            return booking;
+        }
+    }
+
+    private static String required(Map<String, String> fields, String field, int maxLength) {
+        String value = optional(fields, field, maxLength);
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, String> fields, String field, int maxLength) {
+        String value = fields.get(field);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        value = value.trim();
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    // ISO date-time (2025-10-20T09:30); a date alone means the start of that day
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid bookingDate: " + value + " (expected yyyy-MM-ddTHH:mm)");
+        }
+    }
+
+    private static BigDecimal parseAmount(String value, String field) {
+        try {
+            BigDecimal amount = new BigDecimal(value);
+            if (amount.signum() < 0 || amount.scale() > 2 || amount.precision() - amount.scale() > 8) {
+                throw new IllegalArgumentException("Invalid " + field + ": " + value);
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static Long parseLong(String value, String field) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    // Streaming RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks
+    private static class CsvReader {
+        private final Reader reader;
+        private int recordNumber = -1;
+        private int pushedBack = -2;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        // Next record's values, or null at the end of the input
+        List<String> next() throws IOException {
+            int c = read();
+            // Spreadsheet exports (Excel's "CSV UTF-8") start with a byte order mark that is not part of the header
+            if (recordNumber == -1 && c == '\uFEFF') {
+                c = read();
+            }
+            if (c == -1) {
+                return null;
+            }
+            recordNumber++;
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted value in record " + recordNumber);
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            value.append('"');
+                        } else {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        value.append((char) c);
+                    }
+                } else if (c == '"' && value.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            pushedBack = following;
+                        }
+                    }
+                    values.add(value.toString());
+                    return values;
+                } else {
+                    value.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        int getRecordNumber() {
+            return recordNumber;
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+
+    // Outcome of an import
+    public static class ImportReport {
+        private int totalRows;
+        private int imported;
+        private int failed;
+        private boolean aborted;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void addError(int recordNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(recordNumber, message));
+            }
+        }
+
+        public int getTotalRows() {
+            return totalRows;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        // The first MAX_REPORTED_ERRORS errors
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        public boolean isErrorsTruncated() {
+            return failed > errors.size();
+        }
+
+        // True when unreadable input stopped the import; rows before that point were still imported
+        public boolean isAborted() {
+            return aborted;
+        }
+    }
+
+    // One rejected record: its 1-based position among the data records and the reason
+    public static class RowError {
+        private final int record;
+        private final String message;
+
+        public RowError(int record, String message) {
+            this.record = record;
+            this.message = message;
+        }
+
+        public int getRecord() {
+            return record;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.vehicleservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Hands out booking numbers from blocks reserved with a database sequence (hi/lo style).
+// Each block costs one statement; numbers within a block come from memory, and blocks never
+// overlap across application nodes because the sequence hands each caller a distinct range.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class BookingNumberAllocator {
+
+    private static final String PREFIX = "BK";
+
+    // Numbers reserved per database round trip
+    private static final int BLOCK_SIZE = 100;
+
+    // Created by migration V3 (starts at 1000000, increments by BLOCK_SIZE)
+    private static final String SEQUENCE_NAME = "booking_number_seq";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Next number to hand out and the end (exclusive) of the current block
+    private long nextNumber;
+    private long blockEnd;
+
+    /// Next booking number, e.g. BK1000042
+    public synchronized String nextBookingNumber() {
+        if (nextNumber >= blockEnd) {
+            nextNumber = reserveBlock();
+            blockEnd = nextNumber + BLOCK_SIZE;
+        }
+        return PREFIX + nextNumber++;
+    }
+
+    // Reserve the next block; the sequence increments by BLOCK_SIZE so its value is the block start
+    private long reserveBlock() {
+        Long blockStart = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR dbo." + SEQUENCE_NAME, Long.class);
+        if (blockStart == null) {
+            throw new IllegalStateException("Could not reserve a booking number block");
+        }
+        return blockStart;
+    }
+}
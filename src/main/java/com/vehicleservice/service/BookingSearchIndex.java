@@ -0,0 +1,441 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.entity.Booking;
+import com.vehicleservice.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process search index over booking number, vehicle number, customer name and service type.
+// Substring queries are answered from trigram postings, then verified and ranked, so a search never
+// scans the bookings table; 1-2 character queries are checked against the indexed fields in memory. Postings are sorted primitive
+// id arrays, and a search keeps only the hits it has to return in a bounded heap.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class BookingSearchIndex {
+
+    // Length of the n-grams used for substring search
+    private static final int GRAM = 3;
+
+    // Rows read per query while building the index
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    // Field weights used for ranking (identifiers first)
+    private static final int BOOKING_NUMBER_WEIGHT = 4;
+    private static final int VEHICLE_NUMBER_WEIGHT = 3;
+    private static final int CUSTOMER_NAME_WEIGHT = 2;
+    private static final int SERVICE_TYPE_WEIGHT = 1;
+
+    // Higher score first, then the most recent booking, then the newest id
+    private static final Comparator<ScoredId> RANKING = Comparator.comparingInt((ScoredId match) -> match.score)
+            .reversed()
+            .thenComparing((ScoredId match) -> match.bookingDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing((ScoredId match) -> match.id, Comparator.reverseOrder());
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    // Indexed fields per booking id
+    private final Map<Long, IndexedBooking> documents = new HashMap<>();
+
+    // Trigram -> booking ids whose fields contain it
+    private final Map<String, Postings> grams = new HashMap<>();
+
+    // Ids deleted while the initial load is running, so the load does not bring them back
+    private final Set<Long> deletedDuringLoad = new HashSet<>();
+
+    // Writes (index, remove, load batches) take the write lock; searches share the read lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Held by the thread building the index; searches arriving meanwhile wait for it
+    private final Object loadLock = new Object();
+
+    private volatile boolean loaded;
+    private boolean loading;
+
+    /// Ids of all bookings matching the keyword, best match first
+    public List<Long> search(String keyword) {
+        return search(keyword, Integer.MAX_VALUE).getIds();
+    }
+
+    /// The best {@code limit} matches for the keyword, best first, with the total number of matches.
+    /// Any substring of a field matches, as with LIKE '%kw%'. Only {@code limit} hits are held while
+    /// ranking, so a common term costs a pass over its postings rather than a sort of everything it
+    /// matches; queries shorter than a trigram are checked against every indexed booking.
+    public SearchResult search(String keyword, int limit) {
+        ensureLoaded();
+
+        String query = normalize(keyword);
+        if (query.isEmpty() || limit <= 0) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        TopHits hits = new TopHits(limit);
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM) {
+                // Too short for trigrams: check every booking, as the LIKE '%kw%' search did (in memory here)
+                for (Map.Entry<Long, IndexedBooking> entry : documents.entrySet()) {
+                    hits.offer(entry.getKey(), entry.getValue(), query);
+                }
+            } else {
+                List<Postings> postings = candidatePostings(query);
+                if (!postings.isEmpty()) {
+                    // Walk the smallest posting list and check the others by binary search
+                    Postings smallest = postings.get(0);
+                    for (int i = 0; i < smallest.size; i++) {
+                        long id = smallest.ids[i];
+                        if (containedInAll(postings, id)) {
+                            hits.offer(id, documents.get(id), query);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.result();
+    }
+
+    /// Add or re-index a booking after it was written
+    public void index(Booking booking) {
+        if (booking.getId() == null) {
+            return;
+        }
+        IndexedBooking document = new IndexedBooking(booking.getBookingNumber(), booking.getVehicleNumber(),
+                booking.getCustomerName(), booking.getServiceType(), booking.getBookingDate());
+        lock.writeLock().lock();
+        try {
+            IndexedBooking previous = documents.put(booking.getId(), document);
+            repost(booking.getId(), previous, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /// Drop a deleted booking from the index
+    public void remove(Long bookingId) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                deletedDuringLoad.add(bookingId);
+            }
+            IndexedBooking previous = documents.remove(bookingId);
+            if (previous != null) {
+                repost(bookingId, previous, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /// Number of bookings in the index
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Build the index from the database on first use, reading the table in id order
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (!loaded) {
+                load();
+            }
+        }
+    }
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = bookingRepository.findSearchFieldsAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (Object[] row : rows) {
+                        Long id = (Long) row[0];
+                        afterId = id;
+                        // Bookings written since the load started are already indexed with newer values
+                        if (documents.containsKey(id) || deletedDuringLoad.contains(id)) {
+                            continue;
+                        }
+                        IndexedBooking document = new IndexedBooking((String) row[1], (String) row[2],
+                                (String) row[3], (String) row[4], (LocalDateTime) row[5]);
+                        documents.put(id, document);
+                        repost(id, null, document);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (rows.size() == LOAD_BATCH_SIZE);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                deletedDuringLoad.clear();
+                // Give back the spare capacity the postings grew while loading
+                grams.values().forEach(Postings::trim);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        System.out.println("Booking search index loaded: " + documents.size() + " bookings");
+    }
+
+    // Postings of every trigram of the query, smallest first; empty if some trigram has no postings.
+    // Trigram hits are verified against the document before ranking.
+    private List<Postings> candidatePostings(String query) {
+        List<Postings> postings = new ArrayList<>();
+        for (String gram : gramsOf(query)) {
+            Postings ids = grams.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt((Postings ids) -> ids.size));
+        return postings;
+    }
+
+    private static boolean containedInAll(List<Postings> postings, long id) {
+        for (int i = 1; i < postings.size(); i++) {
+            if (!postings.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Move a booking's postings from its previous document to its new one, touching only the keys that changed
+    private void repost(long id, IndexedBooking previous, IndexedBooking document) {
+        Set<String> previousGrams = previous != null ? previous.gramKeys() : Set.of();
+        Set<String> newGrams = document != null ? document.gramKeys() : Set.of();
+        updatePostings(grams, id, previousGrams, newGrams);
+    }
+
+    private static void updatePostings(Map<String, Postings> postings, long id, Set<String> previousKeys,
+            Set<String> newKeys) {
+        for (String key : previousKeys) {
+            if (!newKeys.contains(key)) {
+                Postings ids = postings.get(key);
+                if (ids != null && ids.remove(id) && ids.size == 0) {
+                    postings.remove(key);
+                }
+            }
+        }
+        for (String key : newKeys) {
+            if (!previousKeys.contains(key)) {
+                postings.computeIfAbsent(key, k -> new Postings()).add(id);
+            }
+        }
+    }
+
+    private static Set<String> gramsOf(String value) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            result.add(value.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Normalized searchable fields of one booking
+    private static class IndexedBooking {
+        private final String bookingNumber;
+        private final String vehicleNumber;
+        private final String customerName;
+        private final String serviceType;
+        private final LocalDateTime bookingDate;
+
+        IndexedBooking(String bookingNumber, String vehicleNumber, String customerName, String serviceType,
+                LocalDateTime bookingDate) {
+            this.bookingNumber = normalize(bookingNumber);
+            this.vehicleNumber = normalize(vehicleNumber);
+            this.customerName = normalize(customerName);
+            this.serviceType = normalize(serviceType);
+            this.bookingDate = bookingDate;
+        }
+
+        // Relevance of this booking for a query; 0 if no field contains it
+        int score(String query) {
+            return fieldScore(bookingNumber, query) * BOOKING_NUMBER_WEIGHT
+                    + fieldScore(vehicleNumber, query) * VEHICLE_NUMBER_WEIGHT
+                    + fieldScore(customerName, query) * CUSTOMER_NAME_WEIGHT
+                    + fieldScore(serviceType, query) * SERVICE_TYPE_WEIGHT;
+        }
+
+        Set<String> gramKeys() {
+            Set<String> keys = new HashSet<>();
+            for (String field : fields()) {
+                keys.addAll(gramsOf(field));
+            }
+            return keys;
+        }
+
+        private String[] fields() {
+            return new String[] { bookingNumber, vehicleNumber, customerName, serviceType };
+        }
+
+        // Exact match > field prefix > word prefix > substring
+        private static int fieldScore(String field, String query) {
+            if (field.isEmpty()) {
+                return 0;
+            }
+            if (field.equals(query)) {
+                return 8;
+            }
+            if (field.startsWith(query)) {
+                return 4;
+            }
+            int index = field.indexOf(query);
+            if (index < 0) {
+                return 0;
+            }
+            return Character.isLetterOrDigit(field.charAt(index - 1)) ? 1 : 2;
+        }
+    }
+
+    // Best hits seen so far, worst at the head of the heap so it is the one a better hit replaces
+    private static class TopHits {
+        private final int limit;
+        private final PriorityQueue<ScoredId> best;
+        private long total;
+
+        TopHits(int limit) {
+            this.limit = limit;
+            this.best = new PriorityQueue<>(Math.min(limit, 1024), RANKING.reversed());
+        }
+
+        void offer(long id, IndexedBooking document, String query) {
+            int score = document != null ? document.score(query) : 0;
+            if (score <= 0) {
+                return;
+            }
+            total++;
+            ScoredId match = new ScoredId(id, score, document.bookingDate);
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (RANKING.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        SearchResult result() {
+            List<ScoredId> matches = new ArrayList<>(best);
+            matches.sort(RANKING);
+            List<Long> ids = new ArrayList<>(matches.size());
+            for (ScoredId match : matches) {
+                ids.add(match.id);
+            }
+            return new SearchResult(ids, total);
+        }
+    }
+
+    /// One page of ranked ids and the number of bookings matching in total
+    public static class SearchResult {
+        private final List<Long> ids;
+        private final long total;
+
+        SearchResult(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    // Sorted booking ids for one key, stored as primitives (8 bytes per posting instead of a boxed set entry).
+    // New bookings carry increasing ids, so adds are mostly appends.
+    private static class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            int index = size == 0 || id > ids[size - 1] ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -(index + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            if (size < ids.length / 4) {
+                trim();
+            }
+            return true;
+        }
+
+        void trim() {
+            if (ids.length != size) {
+                ids = Arrays.copyOf(ids, Math.max(size, 1));
+            }
+        }
+    }
+
+    // Ranked search hit
+    private static class ScoredId {
+        private final long id;
+        private final int score;
+        private final LocalDateTime bookingDate;
+
+        ScoredId(long id, int score, LocalDateTime bookingDate) {
+            this.id = id;
+            this.score = score;
+            this.bookingDate = bookingDate;
+        }
+    }
+}
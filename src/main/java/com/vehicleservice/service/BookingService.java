@@ -3,27 +3,44 @@ package com.vehicleservice.service;
 // Import statements for booking service functionality
 import com.vehicleservice.entity.Booking;
 import com.vehicleservice.entity.Booking.PaymentStatus;
+import com.vehicleservice.entity.PaymentLedgerEntry;
 import com.vehicleservice.repository.BookingRepository;
+import com.vehicleservice.repository.PaymentLedgerRepository;
 import com.vehicleservice.strategy.PricingStrategyManager;
 import com.vehicleservice.strategy.SlotGenerationStrategyManager;
 import com.vehicleservice.strategy.PaymentProcessingStrategyManager;
 import com.vehicleservice.strategy.PaymentProcessingStrategy;
+import com.vehicleservice.strategy.SlotGenerationStrategy;
+import com.vehicleservice.strategy.SlotTemplate;
+import com.vehicleservice.util.DecisionTrace;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 
 // Service class for booking management operations
 @Service
@@ -33,6 +50,9 @@ public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private PaymentLedgerRepository paymentLedgerRepository;
+
     @Autowired
     private PricingStrategyManager pricingStrategyManager;
 
@@ -42,6 +62,30 @@ public class BookingService {
     @Autowired
     private PaymentProcessingStrategyManager paymentProcessingStrategyManager;
 
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    @Autowired
+    private SlotAvailabilityCache slotAvailabilityCache;
+
+    @Autowired
+    private SlotReservationLocks slotReservationLocks;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DecisionTrace decisionTrace;
+
+    @Autowired
+    private BookingNumberAllocator bookingNumberAllocator;
+
+    @Autowired
+    private BookingSearchIndex bookingSearchIndex;
+
+    @Autowired
+    private BookingFeed bookingFeed;
+
     public List<Booking> getAllBookings() {
         try {
             return bookingRepository.findAll();
@@ -60,59 +104,163 @@ public class BookingService {
         }
     }
 
+    /// One keyset page of bookings, newest first (see BookingFeed)
+    public BookingFeed.FeedPage getBookingFeed(BookingFeed.Filter filter, String after, String before, int size) {
+        return bookingFeed.getPage(filter, after, before, size);
+    }
+
+    public long getBookingCount() {
+        return bookingRepository.count();
+    }
+
     public Optional<Booking> getBookingById(Long id) {
         return bookingRepository.findById(id);
     }
 
+    /// Save a booking. A paid amount entered or changed directly by staff is written to the payment ledger
+    /// as a charge or refund of the difference.
     @Transactional
     public Booking saveBooking(Booking booking) {
+        return saveBooking(booking, true);
+    }
+
+    /// Save a booking, writing a direct paid amount change to the ledger only when asked to. Customer-facing
+    /// saves pass false: a customer typing an amount into a form has not paid or been refunded anything.
+    @Transactional
+    public Booking saveBooking(Booking booking, boolean ledgerPaidAmountChange) {
         if (booking.getBookingNumber() == null || booking.getBookingNumber().isEmpty()) {
             booking.setBookingNumber(generateBookingNumber());
         }
 
-        // Save the booking
-        Booking savedBooking = bookingRepository.save(booking);
+        // Stored date, service type and paid amount; nothing is stored yet for a new booking
+        List<Object[]> stored = booking.getId() != null ? bookingRepository.findStoredStateById(booking.getId())
+                : List.of();
 
-        // Clear any cached slot availability data to ensure real-time updates
-        clearSlotAvailabilityCache();
+        // Make sure the booking's time slot still has room; the slot stays locked until the transaction completes.
+        // Saves that keep the booking in its slot (status, payment, assignment) are never refused.
+        Runnable releaseSlot = movesToNewSlot(booking, stored) ? reserveSlot(booking) : () -> {
+        };
 
-        return savedBooking;
+        try {
+            boolean created = booking.getId() == null;
+
+            // Save the booking
+            Booking savedBooking = bookingRepository.save(booking);
+            if (created) {
+                eventPublisher.publishEvent(ManagerDashboardChangedEvent.bookingCreated());
+            }
+
+            if (ledgerPaidAmountChange) {
+                recordPaidAmountChange(savedBooking, stored.isEmpty() ? null : (BigDecimal) stored.get(0)[2]);
+            }
+
+            // Keep slot occupancy in step with the saved booking
+            onBookingWritten(savedBooking);
+
+            return savedBooking;
+        } finally {
+            afterCompletion(releaseSlot);
+        }
     }
 
+    /// Insert a batch of imported bookings in one transaction, sent as JDBC batches. Imported bookings
+    /// are not held to slot capacity (they are migrated or pre-arranged); slot occupancy, the search index
+    /// and the dashboard counters take them in once the batch commits.
+    @Transactional
+    public List<Booking> saveImportedBatch(List<Booking> bookings) {
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        eventPublisher.publishEvent(ManagerDashboardChangedEvent.bookingsCreated(savedBookings.size()));
+        afterCommit(() -> {
+            Set<LocalDate> touchedDates = new TreeSet<>();
+            for (Booking booking : savedBookings) {
+                bookingSearchIndex.index(booking);
+                LocalDate previousDate = slotOccupancyIndex.recordBooking(booking.getId(), booking.getBookingDate());
+                if (previousDate != null) {
+                    touchedDates.add(previousDate);
+                }
+                touchedDates.add(booking.getBookingDate().toLocalDate());
+            }
+            evictSlotAvailability(touchedDates.toArray(new LocalDate[0]));
+        });
+        return savedBookings;
+    }
+
+    /// Update a booking; goes through saveBooking so a moved booking is held to slot capacity too
     @Transactional
     public Booking updateBooking(Booking booking) {
-        Booking updatedBooking = bookingRepository.save(booking);
-        // Clear cache to ensure real-time updates
-        clearSlotAvailabilityCache();
-        return updatedBooking;
+        return saveBooking(booking);
     }
 
     @Transactional
     public void deleteBooking(Long id) {
-        bookingRepository.deleteById(id);
-        // Clear cache to ensure real-time updates
-        clearSlotAvailabilityCache();
+        if (bookingRepository.existsById(id)) {
+            bookingRepository.deleteById(id);
+            eventPublisher.publishEvent(ManagerDashboardChangedEvent.bookingDeleted());
+        }
+        // Drop the booking from slot occupancy
+        afterCommit(() -> {
+            evictSlotAvailability(slotOccupancyIndex.removeBooking(id));
+            bookingSearchIndex.remove(id);
+        });
     }
 
+    /// Search bookings by booking number, vehicle number, customer name or service type, best match first.
+    /// Like the old LIKE '%kw%' query, the keyword matches anywhere inside a field, ignoring case.
     public List<Booking> searchBookings(String keyword) {
-        return bookingRepository.findByKeyword(keyword);
+        return loadInOrder(bookingSearchIndex.search(keyword));
+    }
+
+    /// Search bookings one page at a time, best match first
+    public Page<Booking> searchBookings(String keyword, Pageable pageable) {
+        // Rank only as far as the end of the requested page
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        BookingSearchIndex.SearchResult result = bookingSearchIndex.search(keyword, limit);
+        List<Long> ids = result.getIds();
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        return new PageImpl<>(loadInOrder(ids.subList(from, ids.size())), pageable, result.getTotal());
+    }
+
+    // Load bookings by id, keeping the order of the ids
+    private List<Booking> loadInOrder(List<Long> ids) {
+        Map<Long, Booking> bookingsById = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllById(ids)) {
+            bookingsById.put(booking.getId(), booking);
+        }
+        List<Booking> bookings = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Booking booking = bookingsById.get(id);
+            if (booking != null) {
+                bookings.add(booking);
+            }
+        }
+        return bookings;
     }
 
     public List<Booking> getBookingsByPaymentStatus(PaymentStatus paymentStatus) {
         return bookingRepository.findByPaymentStatus(paymentStatus);
     }
 
-    public List<Booking> getBookingsByCustomerName(String customerName) {
-        return bookingRepository.findByCustomerNameContainingIgnoreCase(customerName);
+    /// One page of a customer's bookings, newest first
+    public Page<Booking> getBookingsByCustomer(Long customerId, int page, int size) {
+        return bookingRepository.findByCustomerId(customerId,
+                PageRequest.of(page, size, Sort.by(Sort.Order.desc("bookingDate"), Sort.Order.desc("id"))));
+    }
+
+    /// A customer's unpaid bookings from today through the next 7 days, soonest first
+    public List<Booking> getUpcomingBookingsForCustomer(Long customerId, int limit) {
+        LocalDate today = LocalDate.now();
+        return bookingRepository.findByCustomerIdAndDateRangeExcludingStatus(customerId, today.atStartOfDay(),
+                today.plusDays(7).atStartOfDay(), PaymentStatus.PAID, PageRequest.of(0, limit));
     }
 
     public List<Booking> getBookingsByVehicleNumber(String vehicleNumber) {
         return bookingRepository.findByVehicleNumberContainingIgnoreCase(vehicleNumber);
     }
 
+    // Bookings in [startDate, endDate)
     public List<Booking> getBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         try {
-            return bookingRepository.findByBookingDateBetween(startDate, endDate);
+            return bookingRepository.findByBookingDateRange(startDate, endDate);
         } catch (Exception e) {
             System.err.println("Error getting bookings by date range: " + e.getMessage());
             e.printStackTrace();
@@ -122,7 +270,8 @@ public class BookingService {
 
     public List<Booking> getUpcomingBookings() {
         try {
-            return bookingRepository.findByBookingDateBetween(LocalDateTime.now(), LocalDateTime.now().plusDays(7));
+            LocalDateTime now = LocalDateTime.now();
+            return bookingRepository.findByBookingDateRange(now, now.plusDays(7));
         } catch (Exception e) {
             System.err.println("Error getting upcoming bookings: " + e.getMessage());
             e.printStackTrace();
@@ -131,24 +280,8 @@ public class BookingService {
     }
 
     private String generateBookingNumber() {
-        // Generate unique booking number: BK + 6-digit random number
-        Random random = new Random();
-        String bookingNumber;
-        int attempts = 0;
-
-        do {
-            int randomNumber = random.nextInt(900000) + 100000; // 100000 to 999999
-            bookingNumber = "BK" + randomNumber;
-            attempts++;
-        } while (bookingRepository.existsByBookingNumber(bookingNumber) && attempts < 10);
-
-        // If we couldn't find a unique number after 10 attempts, use timestamp as
-        // fallback
-        if (attempts >= 10) {
-            bookingNumber = "BK" + System.currentTimeMillis();
-        }
-
-        return bookingNumber;
+        // Unique booking number from a block reserved in the database: BK + sequential number
+        return bookingNumberAllocator.nextBookingNumber();
     }
 
     // =================== SLOT AVAILABILITY FUNCTIONALITY ===================
@@ -158,6 +291,12 @@ public class BookingService {
     // Maximum bookings per slot
     private static final int MAX_BOOKINGS_PER_SLOT = 2;
 
+    // Longest window accepted by getAvailableSlotsForRange and findNextAvailableSlots
+    private static final int MAX_SLOT_WINDOW_DAYS = 90;
+
+    // Most slots returned by one findNextAvailableSlots call
+    private static final int MAX_NEXT_SLOTS = 50;
+
     /// Get available time slots for a given date
     public List<TimeSlot> getAvailableSlots(LocalDate date) {
         return getAvailableSlots(date, null);
@@ -165,102 +304,181 @@ public class BookingService {
 
     /// Get available time slots for a given date and service type using Strategy pattern
     public List<TimeSlot> getAvailableSlots(LocalDate date, String serviceType) {
-        List<TimeSlot> availableSlots = new ArrayList<>();
+        return getSlotAvailability(date, serviceType);
+    }
+
+    /// Get slot availability for a date and service type as a read-only view (cached until a booking changes)
+    private SlotAvailabilityView getSlotAvailability(LocalDate date, String serviceType) {
+        // Slot grid and capacity depend only on the strategy, so results are cached per category
+        SlotGenerationStrategy strategy = slotGenerationStrategyManager.getStrategyForService(serviceType);
+        String category = strategy.getServiceCategory();
+
+        // Get booking occupancy for the date (loaded once, then maintained on writes)
+        SlotOccupancyIndex.DayOccupancy occupancy = slotOccupancyIndex.getDay(date);
+
+        SlotAvailabilityView cachedSlots = slotAvailabilityCache.get(date, category, occupancy);
+        if (cachedSlots != null) {
+            if (decisionTrace.isActive()) {
+                decisionTrace.record("slot-availability", date + " " + category,
+                        "cache hit (occupancy version " + occupancy.getVersion() + ")");
+            }
+            return cachedSlots;
+        }
 
-        // Generate slots using Strategy pattern
-        List<TimeSlot> allSlots = slotGenerationStrategyManager.generateSlots(date, serviceType);
+        // Read the version before computing so a concurrent write marks the result stale
+        long version = occupancy.getVersion();
 
-        // Get existing bookings for the date
-        List<Booking> existingBookings = bookingRepository.findByBookingDate(date);
+        // Get the precomputed slot grid using Strategy pattern
+        SlotTemplate template = strategy.getSlotTemplate(date);
 
         // Check availability for each slot using Strategy pattern
-        int maxBookingsPerSlot = slotGenerationStrategyManager.getMaxBookingsPerSlot(serviceType);
+        int maxBookingsPerSlot = strategy.getMaxBookingsPerSlot(serviceType);
+        int[] remainingSlots = new int[template.size()];
 
-        for (TimeSlot slot : allSlots) {
-            int bookingCount = countBookingsInSlot(existingBookings, slot);
-            if (bookingCount < maxBookingsPerSlot) {
-                slot.setAvailable(true);
-                slot.setRemainingSlots(maxBookingsPerSlot - bookingCount);
-            } else {
-                slot.setAvailable(false);
-                slot.setRemainingSlots(0);
-            }
-            availableSlots.add(slot);
+        for (int i = 0; i < template.size(); i++) {
+            int bookingCount = occupancy.countBetween(template.getStartMinute(i), template.getEndMinute(i));
+            remainingSlots[i] = Math.max(0, maxBookingsPerSlot - bookingCount);
         }
 
-        return availableSlots;
+        SlotAvailabilityView availableSlots = new SlotAvailabilityView(date, template, remainingSlots);
+        if (decisionTrace.isActive()) {
+            decisionTrace.record("slot-availability", date + " " + category,
+                    "computed " + template.size() + " slots from " + occupancy.getBookingCount()
+                            + " bookings (occupancy version " + version + ")");
+        }
+        return slotAvailabilityCache.put(date, category, occupancy, version, availableSlots);
     }
 
     /// Check if a specific time slot is available
     public boolean isSlotAvailable(LocalDate date, LocalTime time) {
-        List<Booking> existingBookings = bookingRepository.findByBookingDate(date);
-        TimeSlot requestedSlot = new TimeSlot(date, time, time.plusMinutes(60)); // 60 minutes default slot duration
+        SlotOccupancyIndex.DayOccupancy occupancy = slotOccupancyIndex.getDay(date);
+        LocalTime endTime = time.plusMinutes(60); // 60 minutes default slot duration
 
-        int bookingCount = countBookingsInSlot(existingBookings, requestedSlot);
+        int bookingCount = occupancy.countBetween(time, endTime);
         return bookingCount < MAX_BOOKINGS_PER_SLOT;
     }
 
     /// Get available slots for the next 7 days
     public List<DateSlots> getAvailableSlotsForWeek(LocalDate startDate) {
-        List<DateSlots> weekSlots = new ArrayList<>();
+        return getAvailableSlotsForRange(startDate, 7, null);
+    }
+
+    /// Get available slots for an N-day window starting at startDate
+    public List<DateSlots> getAvailableSlotsForRange(LocalDate startDate, int numberOfDays, String serviceType) {
+        if (numberOfDays < 1 || numberOfDays > MAX_SLOT_WINDOW_DAYS) {
+            throw new IllegalArgumentException(
+                    "Number of days must be between 1 and " + MAX_SLOT_WINDOW_DAYS + ": " + numberOfDays);
+        }
+
+        // Load every missing day of the window with one range query
+        slotOccupancyIndex.getDays(startDate, numberOfDays);
 
-        for (int i = 0; i < 7; i++) {
-            LocalDate date = startDate.plusDays(i);
-            List<TimeSlot> slots = getAvailableSlots(date);
-            weekSlots.add(new DateSlots(date, slots));
+        // Once occupancy is loaded each day is a few array lookups, so compute them on the request thread
+        // (which also keeps the request's decision trace)
+        List<DateSlots> days = new ArrayList<>(numberOfDays);
+        for (int day = 0; day < numberOfDays; day++) {
+            LocalDate date = startDate.plusDays(day);
+            days.add(new DateSlots(date, getAvailableSlots(date, serviceType)));
         }
+        return days;
+    }
+
+    /// Find the next available slots for a service type, searching forward from a date for up to horizonDays days
+    public List<TimeSlot> findNextAvailableSlots(LocalDate fromDate, String serviceType, int count, int horizonDays) {
+        if (count < 1 || count > MAX_NEXT_SLOTS) {
+            throw new IllegalArgumentException("Number of slots must be between 1 and " + MAX_NEXT_SLOTS + ": " + count);
+        }
+        if (horizonDays < 1 || horizonDays > MAX_SLOT_WINDOW_DAYS) {
+            throw new IllegalArgumentException(
+                    "Number of days must be between 1 and " + MAX_SLOT_WINDOW_DAYS + ": " + horizonDays);
+        }
+
+        // Load every missing day of the horizon with one range query
+        slotOccupancyIndex.getDays(fromDate, horizonDays);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        List<TimeSlot> nextSlots = new ArrayList<>(count);
+        for (int day = 0; day < horizonDays && nextSlots.size() < count; day++) {
+            LocalDate date = fromDate.plusDays(day);
+            if (date.isBefore(today)) {
+                continue;
+            }
+
+            // Full days are skipped without creating any TimeSlot
+            SlotAvailabilityView availability = getSlotAvailability(date, serviceType);
+            if (availability.isFullyBooked()) {
+                continue;
+            }
 
-        return weekSlots;
+            for (int i = availability.nextFreeSlot(0); i >= 0 && nextSlots.size() < count;
+                    i = availability.nextFreeSlot(i + 1)) {
+                // Skip slots that have already started today
+                if (date.equals(today) && !availability.getTemplate().getStartTime(i).isAfter(now.toLocalTime())) {
+                    continue;
+                }
+                nextSlots.add(availability.get(i));
+            }
+        }
+
+        if (decisionTrace.isActive()) {
+            decisionTrace.record("next-available-slots", fromDate + " " + serviceType,
+                    "found " + nextSlots.size() + "/" + count + " within " + horizonDays + " days");
+        }
+        return nextSlots;
     }
 
     /// Get real-time available slots (always fresh data)
     public List<TimeSlot> getRealTimeAvailableSlots(LocalDate date, String serviceType) {
-        // Force fresh data by getting current bookings
-        List<Booking> currentBookings = bookingRepository.findByBookingDate(date);
-        System.out.println("Real-time slot check for date: " + date + ", service: " + serviceType);
-        System.out.println("Found " + currentBookings.size() + " existing bookings for this date");
-
-        // Generate slots using Strategy pattern
-        List<TimeSlot> allSlots = slotGenerationStrategyManager.generateSlots(date, serviceType);
-        List<TimeSlot> availableSlots = new ArrayList<>();
-
-        // Check availability for each slot with current data using Strategy pattern
-        int maxBookingsPerSlot = slotGenerationStrategyManager.getMaxBookingsPerSlot(serviceType);
-        for (TimeSlot slot : allSlots) {
-            int bookingCount = countBookingsInSlot(currentBookings, slot);
-            if (bookingCount < maxBookingsPerSlot) {
-                slot.setAvailable(true);
-                slot.setRemainingSlots(maxBookingsPerSlot - bookingCount);
-            } else {
-                slot.setAvailable(false);
-                slot.setRemainingSlots(0);
+        // Occupancy and cached slots are kept current by every booking write, so no database round trip is needed
+        List<TimeSlot> availableSlots = getAvailableSlots(date, serviceType);
+
+        if (decisionTrace.isActive()) {
+            SlotOccupancyIndex.DayOccupancy occupancy = slotOccupancyIndex.getDay(date);
+            StringBuilder decision = new StringBuilder()
+                    .append(occupancy.getBookingCount()).append(" existing bookings;");
+            for (TimeSlot slot : availableSlots) {
+                decision.append(' ').append(slot.getStartTime()).append('-').append(slot.getEndTime())
+                        .append('=').append(slot.isAvailable() ? slot.getRemainingSlots() + " left" : "full");
             }
-            availableSlots.add(slot);
-
-            // Debug logging
-            System.out.println("Slot " + slot.getStartTime() + "-" + slot.getEndTime() +
-                    ": " + bookingCount + " bookings, " +
-                    (slot.isAvailable() ? "Available" : "Full") +
-                    " (" + slot.getRemainingSlots() + " remaining)");
+            decisionTrace.record("real-time-slots", date + " " + serviceType, decision.toString());
         }
 
         return availableSlots;
     }
 
-    /// Clear slot availability cache (placeholder for future caching implementation)
+    /// Evict cached slot availability for the dates touched by a booking write and notify slot listeners
+    private void evictSlotAvailability(LocalDate... dates) {
+        for (int i = 0; i < dates.length; i++) {
+            LocalDate date = dates[i];
+            if (date == null || (i > 0 && date.equals(dates[i - 1]))) {
+                continue;
+            }
+            slotAvailabilityCache.invalidate(date);
+            eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(date));
+        }
+    }
+
+    /// Clear all cached slot availability so the next request recomputes from fresh data
     private void clearSlotAvailabilityCache() {
-        // For now, this is a placeholder
-        // In the future, if we implement caching, we would clear the cache here
-        // This ensures that slot availability is always calculated with fresh data
+        slotAvailabilityCache.clear();
         System.out.println("Slot availability cache cleared - next request will use fresh data");
     }
 
     /// Force refresh slot availability (public method for external calls)
     public void forceRefreshSlotAvailability() {
+        slotOccupancyIndex.clear();
         clearSlotAvailabilityCache();
         System.out.println("Slot availability force refreshed");
     }
 
+    /// Get slot availability cache statistics
+    public Map<String, Object> getSlotAvailabilityCacheStats() {
+        Map<String, Object> stats = slotAvailabilityCache.getStats();
+        stats.put("trackedOccupancyDays", slotOccupancyIndex.getTrackedDayCount());
+        return stats;
+    }
+
     /// Get fixed price for a service type using Strategy pattern
     public double getServicePrice(String serviceType) {
         BigDecimal basePrice = pricingStrategyManager.calculateBasePrice(serviceType);
@@ -302,11 +520,35 @@ public class BookingService {
         return paymentProcessingStrategyManager.processPayment(booking, amount, paymentMethod);
     }
 
+    /// Apply a successful payment to the booking and append its ledger entries in the same transaction.
+    /// The booking is re-read under a row lock, so concurrent payments for it add up instead of overwriting
+    /// each other.
+    @Transactional
+    public Booking recordPayment(Long bookingId, String paymentMethod, PaymentProcessingStrategy.PaymentResult result) {
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                .orElseThrow(() -> new IllegalStateException("Booking " + bookingId + " no longer exists"));
+        BigDecimal paidAmount = booking.getPaidAmount() != null ? booking.getPaidAmount() : BigDecimal.ZERO;
+        booking.setPaidAmount(paidAmount.add(result.getProcessedAmount()));
+        booking.setPaymentMethod(paymentMethod);
+        updatePaymentStatus(booking);
+
+        // The strategy's own ledger entries account for this payment
+        Booking savedBooking = saveBooking(booking, false);
+        paymentLedgerRepository.saveAll(result.getLedgerEntries());
+        return savedBooking;
+    }
+
     /// Calculate processing fees for a payment using Strategy pattern
     public BigDecimal calculateProcessingFees(BigDecimal amount, String paymentMethod) {
         return paymentProcessingStrategyManager.calculateProcessingFees(amount, paymentMethod);
     }
 
+    /// Quote processing fees for several (amount, payment method) pairs at once
+    public List<PaymentProcessingStrategyManager.FeeQuote> quoteProcessingFees(List<BigDecimal> amounts,
+            List<String> paymentMethods) {
+        return paymentProcessingStrategyManager.quoteProcessingFees(amounts, paymentMethods);
+    }
+
     /// Validate payment before processing using Strategy pattern
     public PaymentProcessingStrategy.PaymentValidationResult validatePayment(
             Booking booking, BigDecimal amount, String paymentMethod) {
@@ -329,12 +571,16 @@ public class BookingService {
         Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
         if (bookingOpt.isPresent()) {
             Booking booking = bookingOpt.get();
+            BigDecimal previousPaidAmount = booking.getPaidAmount();
             booking.setPaidAmount(BigDecimal.valueOf(paidAmount));
 
             // Update payment status based on amounts
             updatePaymentStatus(booking);
 
-            return bookingRepository.save(booking);
+            Booking savedBooking = bookingRepository.save(booking);
+            recordPaidAmountChange(savedBooking, previousPaidAmount);
+            onBookingWritten(savedBooking);
+            return savedBooking;
         }
         return null;
     }
@@ -367,6 +613,9 @@ public class BookingService {
         if (bookingOpt.isPresent()) {
             Booking booking = bookingOpt.get();
 
+            // Record the refunded amount in the payment ledger
+            recordRefund(booking, booking.getPaidAmount());
+
             // Set payment status to REFUNDED
             booking.setPaymentStatus(PaymentStatus.REFUNDED);
 
@@ -376,7 +625,9 @@ public class BookingService {
             // Update remaining amount to total price (since refunded)
             booking.setRemainingAmount(booking.getTotalPrice());
 
-            return bookingRepository.save(booking);
+            Booking savedBooking = bookingRepository.save(booking);
+            onBookingWritten(savedBooking);
+            return savedBooking;
         }
         return null;
     }
@@ -394,42 +645,146 @@ public class BookingService {
             } else {
                 // Just cancel without refund
                 booking.setPaymentStatus(PaymentStatus.REFUNDED);
-                return bookingRepository.save(booking);
+                Booking savedBooking = bookingRepository.save(booking);
+                onBookingWritten(savedBooking);
+                return savedBooking;
             }
         }
         return null;
     }
 
-    /// Count bookings in a specific time slot
-    private int countBookingsInSlot(List<Booking> bookings, TimeSlot slot) {
-        int count = 0;
-        for (Booking booking : bookings) {
-            if (booking.getBookingDate() != null && booking.getBookingDate().toLocalDate().equals(slot.getDate())) {
-                // Check if booking time overlaps with slot
-                if (isTimeOverlapping(booking, slot)) {
-                    count++;
-                    System.out.println("Found overlapping booking: " + booking.getBookingNumber() +
-                            " at " + booking.getBookingDate().toLocalTime() +
-                            " for slot " + slot.getStartTime() + "-" + slot.getEndTime());
-                }
+    /// Apply a booking write to slot occupancy and the search index once the surrounding transaction commits
+    private void onBookingWritten(Booking booking) {
+        Long bookingId = booking.getId();
+        LocalDateTime bookingDate = booking.getBookingDate();
+        afterCommit(() -> {
+            bookingSearchIndex.index(booking);
+            LocalDate previousDate = slotOccupancyIndex.recordBooking(bookingId, bookingDate);
+            // Only the dates the booking moved from and to are affected
+            evictSlotAvailability(previousDate, bookingDate != null ? bookingDate.toLocalDate() : null);
+        });
+    }
+
+    /// Write a paid amount change made outside the payment strategies to the ledger: an increase is a charge,
+    /// a decrease a refund
+    private void recordPaidAmountChange(Booking booking, BigDecimal previousPaidAmount) {
+        BigDecimal previous = previousPaidAmount != null ? previousPaidAmount : BigDecimal.ZERO;
+        BigDecimal current = booking.getPaidAmount() != null ? booking.getPaidAmount() : BigDecimal.ZERO;
+        BigDecimal change = current.subtract(previous);
+        if (change.signum() > 0) {
+            paymentLedgerRepository.save(PaymentLedgerEntry.charge(booking, booking.getPaymentMethod(), change,
+                    null));
+        } else if (change.signum() < 0) {
+            recordRefund(booking, change.negate());
+        }
+    }
+
+    /// Record a refund in the ledger, limited to what the ledger shows as charged and not yet refunded.
+    /// Paid amounts from before the ledger (or from imports) were never booked as charges, so refunding
+    /// them would only push settlements negative.
+    private void recordRefund(Booking booking, BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0 || booking.getId() == null) {
+            return;
+        }
+        BigDecimal refundable = amount.min(paymentLedgerRepository.sumChargedNotRefunded(booking.getId()));
+        if (refundable.signum() > 0) {
+            paymentLedgerRepository.save(PaymentLedgerEntry.refund(booking, booking.getPaymentMethod(), refundable));
+        }
+    }
+
+    /// Whether a save puts the booking into a slot it does not hold yet: a new booking, or a changed
+    /// booking date, time or service type
+    private boolean movesToNewSlot(Booking booking, List<Object[]> stored) {
+        if (stored.isEmpty()) {
+            return true;
+        }
+        return !Objects.equals(stored.get(0)[0], booking.getBookingDate())
+                || !Objects.equals(stored.get(0)[1], booking.getServiceType());
+    }
+
+    /// Lock the booking's time slot and check it still has capacity.
+    /// Returns the action that releases the lock; throws if the slot is already full.
+    private Runnable reserveSlot(Booking booking) {
+        LocalDateTime bookingDate = booking.getBookingDate();
+        if (bookingDate == null) {
+            return () -> {
+            };
+        }
+
+        LocalDate date = bookingDate.toLocalDate();
+        int minute = SlotOccupancyIndex.minuteOfDay(bookingDate);
+        SlotGenerationStrategy strategy = slotGenerationStrategyManager.getStrategyForService(booking.getServiceType());
+        SlotTemplate template = strategy.getSlotTemplate(date);
+        int slotIndex = template.indexOfSlotContaining(minute);
+        if (slotIndex < 0) {
+            // Outside the service's slot grid (e.g. date-only bookings), so no slot capacity applies
+            return () -> {
+            };
+        }
+
+        // Slot counts include bookings of every service type, so lock every category's slot this booking falls in
+        List<SlotReservationLocks.SlotKey> slots = new ArrayList<>();
+        for (SlotGenerationStrategy slotStrategy : slotGenerationStrategyManager.getAllStrategies()) {
+            SlotTemplate slotTemplate = slotStrategy.getSlotTemplate(date);
+            int index = slotTemplate.indexOfSlotContaining(minute);
+            if (index >= 0) {
+                slots.add(new SlotReservationLocks.SlotKey(slotTemplate.getServiceCategory(),
+                        slotTemplate.getStartMinute(index)));
             }
         }
-        return count;
-    }
+        Runnable releaseSlot = slotReservationLocks.lockSlots(date, slots);
 
-    /// Check if a booking time overlaps with a slot
-    private boolean isTimeOverlapping(Booking booking, TimeSlot slot) {
-        if (booking.getBookingDate() == null) {
-            return false;
+        try {
+            // Count committed bookings in the slot; earlier writers to this slot have completed by now
+            LocalDateTime slotStart = date.atStartOfDay().plusMinutes(template.getStartMinute(slotIndex));
+            LocalDateTime slotEnd = date.atStartOfDay().plusMinutes(template.getEndMinute(slotIndex));
+            Long bookingId = booking.getId() != null ? booking.getId() : -1L;
+            long bookingCount = bookingRepository.countBySlotExcluding(slotStart, slotEnd, bookingId);
+
+            int maxBookings = strategy.getMaxBookingsPerSlot(booking.getServiceType());
+            if (decisionTrace.isActive()) {
+                decisionTrace.record("slot-reservation", date + " " + slotStart.toLocalTime() + " "
+                        + template.getServiceCategory(),
+                        (bookingCount >= maxBookings ? "rejected: " : "accepted: ") + bookingCount + "/" + maxBookings
+                                + " already booked");
+            }
+            if (bookingCount >= maxBookings) {
+                throw new IllegalStateException("The " + slotStart.toLocalTime() + "-" + slotEnd.toLocalTime()
+                        + " slot on " + date + " is fully booked. Please choose another time slot.");
+            }
+        } catch (RuntimeException e) {
+            releaseSlot.run();
+            throw e;
         }
+        return releaseSlot;
+    }
 
-        // Extract time from booking date
-        LocalTime bookingTime = booking.getBookingDate().toLocalTime();
+    /// Run an action once the current transaction has committed or rolled back, or immediately if there is none
+    private void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 
-        // Check if booking time falls within the slot time range
-        // A booking overlaps if its time is >= slot start time and < slot end time
-        return !bookingTime.isBefore(slot.getStartTime()) &&
-                bookingTime.isBefore(slot.getEndTime());
+    /// Run an action after the current transaction commits, or immediately if there is none
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     /// TimeSlot inner class
@@ -495,6 +850,64 @@ public class BookingService {
         }
     }
 
+    /// Read-only slot list combining a shared slot template with per-date remaining capacity.
+    /// TimeSlot objects are only created when an element is read (e.g. during JSON serialization).
+    public static class SlotAvailabilityView extends AbstractList<TimeSlot> {
+        private final LocalDate date;
+        private final SlotTemplate template;
+        private final int[] remainingSlots;
+
+        // Bit i is set when slot i still has capacity
+        private final BitSet freeSlots;
+
+        public SlotAvailabilityView(LocalDate date, SlotTemplate template, int[] remainingSlots) {
+            this.date = date;
+            this.template = template;
+            this.remainingSlots = remainingSlots;
+            this.freeSlots = new BitSet(remainingSlots.length);
+            for (int i = 0; i < remainingSlots.length; i++) {
+                if (remainingSlots[i] > 0) {
+                    freeSlots.set(i);
+                }
+            }
+        }
+
+        @Override
+        public TimeSlot get(int index) {
+            TimeSlot slot = new TimeSlot(date, template.getStartTime(index), template.getEndTime(index));
+            slot.setAvailable(remainingSlots[index] > 0);
+            slot.setRemainingSlots(remainingSlots[index]);
+            return slot;
+        }
+
+        @Override
+        public int size() {
+            return template.size();
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public SlotTemplate getTemplate() {
+            return template;
+        }
+
+        public int getRemainingSlots(int index) {
+            return remainingSlots[index];
+        }
+
+        /// Index of the first slot at or after fromIndex that still has capacity, or -1 if none
+        public int nextFreeSlot(int fromIndex) {
+            return freeSlots.nextSetBit(fromIndex);
+        }
+
+        /// Whether every slot of the day is full
+        public boolean isFullyBooked() {
+            return freeSlots.isEmpty();
+        }
+    }
+
     /// DateSlots inner class
     public static class DateSlots {
         private LocalDate date;
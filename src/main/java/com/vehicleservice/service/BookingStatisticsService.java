@@ -0,0 +1,120 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.entity.Booking.PaymentStatus;
+import com.vehicleservice.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Dashboard booking counters, computed in the database by one grouped aggregate query per dashboard
+// (counts per payment status, split into date buckets) instead of streaming over booking entities
+@Service
+@org.springframework.context.annotation.Scope("singleton")
+public class BookingStatisticsService {
+
+    // Length of the "recent" (backwards from now) and "upcoming" (forwards from today) windows
+    private static final int WINDOW_DAYS = 7;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    /// Counters over all bookings (receptionist dashboard)
+    public BookingStatistics getOverallStatistics() {
+        DateBuckets buckets = new DateBuckets();
+        return new BookingStatistics(bookingRepository.countByStatusAndDateBuckets(buckets.todayStart,
+                buckets.tomorrowStart, buckets.recentStart, buckets.upcomingEnd));
+    }
+
+    /// Counters over one customer's bookings (customer dashboard)
+    public BookingStatistics getCustomerStatistics(Long customerId) {
+        DateBuckets buckets = new DateBuckets();
+        return new BookingStatistics(bookingRepository.countByStatusAndDateBucketsForCustomer(customerId,
+                buckets.todayStart, buckets.tomorrowStart, buckets.recentStart, buckets.upcomingEnd));
+    }
+
+    // Bucket boundaries, fixed once per request so every counter sees the same "now"
+    private static class DateBuckets {
+        private final LocalDateTime todayStart;
+        private final LocalDateTime tomorrowStart;
+        private final LocalDateTime recentStart;
+        private final LocalDateTime upcomingEnd;
+
+        DateBuckets() {
+            LocalDate today = LocalDate.now();
+            this.todayStart = today.atStartOfDay();
+            this.tomorrowStart = today.plusDays(1).atStartOfDay();
+            this.recentStart = LocalDateTime.now().minusDays(WINDOW_DAYS);
+            this.upcomingEnd = today.plusDays(WINDOW_DAYS).atStartOfDay();
+        }
+    }
+
+    // Dashboard counters built from the per-status rows of the aggregate query
+    public static class BookingStatistics {
+        private final Map<PaymentStatus, Long> countsByStatus = new EnumMap<>(PaymentStatus.class);
+        private long total;
+        private long today;
+        private long recent;
+        private long upcoming;
+        private long upcomingUnpaid;
+
+        public BookingStatistics(List<BookingRepository.StatusCounts> rows) {
+            for (BookingRepository.StatusCounts row : rows) {
+                if (row.getStatus() != null) {
+                    countsByStatus.put(row.getStatus(), row.getTotal());
+                }
+                total += row.getTotal();
+                today += row.getToday();
+                recent += row.getRecent();
+                upcoming += row.getUpcoming();
+                if (row.getStatus() != PaymentStatus.PAID) {
+                    upcomingUnpaid += row.getUpcoming();
+                }
+            }
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getCount(PaymentStatus status) {
+            return countsByStatus.getOrDefault(status, 0L);
+        }
+
+        public long getPending() {
+            return getCount(PaymentStatus.PENDING);
+        }
+
+        public long getPartial() {
+            return getCount(PaymentStatus.PARTIAL);
+        }
+
+        public long getPaid() {
+            return getCount(PaymentStatus.PAID);
+        }
+
+        // Bookings dated today
+        public long getToday() {
+            return today;
+        }
+
+        // Bookings dated within the last 7 days or later
+        public long getRecent() {
+            return recent;
+        }
+
+        // Bookings dated from today through the next 7 days
+        public long getUpcoming() {
+            return upcoming;
+        }
+
+        // Upcoming bookings that are not fully paid
+        public long getUpcomingUnpaid() {
+            return upcomingUnpaid;
+        }
+    }
+}
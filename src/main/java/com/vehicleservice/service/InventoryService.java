@@ -145,8 +145,9 @@ public class InventoryService {
         return inventoryTransactionRepository.findByTransactionType(type);
     }
 
+    // Transactions in [startDate, endDate)
     public List<InventoryTransaction> getTransactionsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return inventoryTransactionRepository.findByDateBetween(startDate, endDate);
+        return inventoryTransactionRepository.findByDateRange(startDate, endDate);
     }
 
     public Integer getTotalQuantityByItemAndType(Long itemId, TransactionType type) {
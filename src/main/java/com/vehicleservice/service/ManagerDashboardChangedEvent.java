@@ -0,0 +1,100 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.entity.TechnicianAssignment.AssignmentStatus;
+
+import java.time.LocalDateTime;
+
+// Published by BookingService and AssignmentService for a write that changes the manager dashboard counters.
+// Carries the exact change when the previous state is known, otherwise only asks for a resync.
+public class ManagerDashboardChangedEvent {
+
+    private final int bookingsDelta;
+    private final int unassignedDelta;
+
+    // Assignment row (status and date) that stopped counting, if any
+    private final AssignmentStatus removedStatus;
+    private final LocalDateTime removedDate;
+
+    // Assignment row (status and date) that started counting, if any
+    private final AssignmentStatus addedStatus;
+    private final LocalDateTime addedDate;
+
+    private final boolean resync;
+
+    private ManagerDashboardChangedEvent(int bookingsDelta, int unassignedDelta, AssignmentStatus removedStatus,
+            LocalDateTime removedDate, AssignmentStatus addedStatus, LocalDateTime addedDate, boolean resync) {
+        this.bookingsDelta = bookingsDelta;
+        this.unassignedDelta = unassignedDelta;
+        this.removedStatus = removedStatus;
+        this.removedDate = removedDate;
+        this.addedStatus = addedStatus;
+        this.addedDate = addedDate;
+        this.resync = resync;
+    }
+
+    /// A new booking; it has no assignment yet
+    public static ManagerDashboardChangedEvent bookingCreated() {
+        return bookingsCreated(1);
+    }
+
+    /// Several new bookings written together (bulk import)
+    public static ManagerDashboardChangedEvent bookingsCreated(int count) {
+        return new ManagerDashboardChangedEvent(count, count, null, null, null, null, false);
+    }
+
+    /// A deleted booking; the assignment foreign key only lets unassigned bookings be deleted
+    public static ManagerDashboardChangedEvent bookingDeleted() {
+        return new ManagerDashboardChangedEvent(-1, -1, null, null, null, null, false);
+    }
+
+    /// A new assignment; firstForBooking when the booking had no assignment before
+    public static ManagerDashboardChangedEvent assignmentAdded(AssignmentStatus status, LocalDateTime date,
+            boolean firstForBooking) {
+        return new ManagerDashboardChangedEvent(0, firstForBooking ? -1 : 0, null, null, status, date, false);
+    }
+
+    /// An assignment whose status or date changed
+    public static ManagerDashboardChangedEvent assignmentChanged(AssignmentStatus oldStatus, LocalDateTime oldDate,
+            AssignmentStatus newStatus, LocalDateTime newDate) {
+        return new ManagerDashboardChangedEvent(0, 0, oldStatus, oldDate, newStatus, newDate, false);
+    }
+
+    /// A deleted assignment; lastForBooking when the booking has no assignment left
+    public static ManagerDashboardChangedEvent assignmentRemoved(AssignmentStatus status, LocalDateTime date,
+            boolean lastForBooking) {
+        return new ManagerDashboardChangedEvent(0, lastForBooking ? 1 : 0, status, date, null, null, false);
+    }
+
+    /// A write whose effect on the counters is not known; the snapshot is reloaded from the database
+    public static ManagerDashboardChangedEvent resyncRequired() {
+        return new ManagerDashboardChangedEvent(0, 0, null, null, null, null, true);
+    }
+
+    public int getBookingsDelta() {
+        return bookingsDelta;
+    }
+
+    public int getUnassignedDelta() {
+        return unassignedDelta;
+    }
+
+    public AssignmentStatus getRemovedStatus() {
+        return removedStatus;
+    }
+
+    public LocalDateTime getRemovedDate() {
+        return removedDate;
+    }
+
+    public AssignmentStatus getAddedStatus() {
+        return addedStatus;
+    }
+
+    public LocalDateTime getAddedDate() {
+        return addedDate;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+}
@@ -0,0 +1,256 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.entity.TechnicianAssignment.AssignmentStatus;
+import com.vehicleservice.repository.BookingRepository;
+import com.vehicleservice.repository.TechnicianAssignmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Manager dashboard counters held in memory. Committed booking and assignment writes apply their
+// change to the counters, so a dashboard read is a single volatile read whatever the table sizes and
+// however many managers refresh. A background pass reloads the counters from the database on a fixed
+// interval, at day rollover (the date buckets move) and whenever a write could not describe its change.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class ManagerDashboardSnapshot {
+
+    // Minutes between reconciliation passes
+    private static final long RECONCILE_INTERVAL_MINUTES = 5;
+
+    // Reloads retried when writes land while the database is being read
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    // Widths of the "week" and "month" assignment date buckets
+    private static final int WEEK_DAYS = 7;
+    private static final int MONTH_DAYS = 30;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TechnicianAssignmentRepository assignmentRepository;
+
+    private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "manager-dashboard-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Set while a reconciliation is queued, so bursts of resync requests run one pass
+    private final AtomicBoolean reconcileQueued = new AtomicBoolean();
+
+    // Current counters; replaced as a whole, never modified in place
+    private volatile Counters current;
+
+    // Changes applied so far; a reload only installs its result if no change landed while it ran
+    private long appliedChanges;
+
+    /// Current dashboard counters
+    public Counters get() {
+        Counters counters = current;
+        if (counters == null) {
+            reconcile();
+            return current;
+        }
+        if (!counters.day.equals(LocalDate.now())) {
+            requestReconcile();
+        }
+        return counters;
+    }
+
+    /// Load the counters and start the periodic reconciliation
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconciler.scheduleWithFixedDelay(this::reconcileQuietly, 0, RECONCILE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /// Apply a committed write to the counters
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDashboardChanged(ManagerDashboardChangedEvent event) {
+        if (event.isResync()) {
+            requestReconcile();
+            return;
+        }
+        synchronized (this) {
+            appliedChanges++;
+            if (current != null) {
+                current = current.apply(event);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    private void requestReconcile() {
+        if (reconcileQueued.compareAndSet(false, true)) {
+            reconciler.execute(() -> {
+                reconcileQueued.set(false);
+                reconcileQuietly();
+            });
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            System.err.println("Manager dashboard reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    // Reload the counters from the database. A change committed between the reads and the install
+    // could be counted twice or missed; such a reload is retried, and the next pass corrects what is left.
+    private void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            long changesBefore;
+            synchronized (this) {
+                changesBefore = appliedChanges;
+            }
+            Counters loaded = load();
+            synchronized (this) {
+                if (appliedChanges == changesBefore || attempt == RECONCILE_ATTEMPTS) {
+                    if (current != null && !current.sameCounts(loaded)) {
+                        System.out.println("Manager dashboard snapshot corrected by reconciliation");
+                    }
+                    current = loaded;
+                    return;
+                }
+            }
+        }
+    }
+
+    private Counters load() {
+        LocalDate day = LocalDate.now();
+        LocalDateTime dayStart = day.atStartOfDay();
+        long[] byStatus = new long[AssignmentStatus.values().length];
+        long today = 0;
+        long week = 0;
+        long month = 0;
+        for (TechnicianAssignmentRepository.StatusCounts row : assignmentRepository.countByStatusAndDateBuckets(
+                dayStart, dayStart.minusDays(WEEK_DAYS), dayStart.minusDays(MONTH_DAYS))) {
+            if (row.getStatus() != null) {
+                byStatus[row.getStatus().ordinal()] = row.getTotal();
+            }
+            today += row.getToday();
+            week += row.getWeek();
+            month += row.getMonth();
+        }
+        return new Counters(day, bookingRepository.count(), bookingRepository.countUnassigned(), byStatus,
+                today, week, month, LocalDateTime.now());
+    }
+
+    // Immutable set of dashboard counters for one day's date buckets
+    public static class Counters {
+        private final LocalDate day;
+        private final long totalBookings;
+        private final long unassignedBookings;
+        private final long[] byStatus;
+        private final long today;
+        private final long week;
+        private final long month;
+        private final LocalDateTime refreshedAt;
+
+        Counters(LocalDate day, long totalBookings, long unassignedBookings, long[] byStatus, long today,
+                long week, long month, LocalDateTime refreshedAt) {
+            this.day = day;
+            this.totalBookings = totalBookings;
+            this.unassignedBookings = unassignedBookings;
+            this.byStatus = byStatus;
+            this.today = today;
+            this.week = week;
+            this.month = month;
+            this.refreshedAt = refreshedAt;
+        }
+
+        // Counters with one write applied; date buckets use the same "after bucket start" rule as the query
+        Counters apply(ManagerDashboardChangedEvent event) {
+            long[] statusCounts = byStatus.clone();
+            long[] buckets = { today, week, month };
+            if (event.getRemovedStatus() != null) {
+                statusCounts[event.getRemovedStatus().ordinal()]--;
+                shiftBuckets(buckets, event.getRemovedDate(), -1);
+            }
+            if (event.getAddedStatus() != null) {
+                statusCounts[event.getAddedStatus().ordinal()]++;
+                shiftBuckets(buckets, event.getAddedDate(), 1);
+            }
+            return new Counters(day, totalBookings + event.getBookingsDelta(),
+                    unassignedBookings + event.getUnassignedDelta(), statusCounts,
+                    buckets[0], buckets[1], buckets[2], refreshedAt);
+        }
+
+        private void shiftBuckets(long[] buckets, LocalDateTime date, int delta) {
+            if (date == null) {
+                return;
+            }
+            LocalDateTime dayStart = day.atStartOfDay();
+            if (date.isAfter(dayStart)) {
+                buckets[0] += delta;
+            }
+            if (date.isAfter(dayStart.minusDays(WEEK_DAYS))) {
+                buckets[1] += delta;
+            }
+            if (date.isAfter(dayStart.minusDays(MONTH_DAYS))) {
+                buckets[2] += delta;
+            }
+        }
+
+        boolean sameCounts(Counters other) {
+            return totalBookings == other.totalBookings && unassignedBookings == other.unassignedBookings
+                    && Arrays.equals(byStatus, other.byStatus) && today == other.today && week == other.week
+                    && month == other.month;
+        }
+
+        public long getTotalBookings() {
+            return totalBookings;
+        }
+
+        public long getUnassignedBookings() {
+            return unassignedBookings;
+        }
+
+        public long getCount(AssignmentStatus status) {
+            return byStatus[status.ordinal()];
+        }
+
+        // Assignments that are assigned or in progress
+        public long getActive() {
+            return getCount(AssignmentStatus.ASSIGNED) + getCount(AssignmentStatus.IN_PROGRESS);
+        }
+
+        // Assignments made since the start of the day
+        public long getToday() {
+            return today;
+        }
+
+        // Assignments made in the last 7 days
+        public long getWeek() {
+            return week;
+        }
+
+        // Assignments made in the last 30 days
+        public long getMonth() {
+            return month;
+        }
+
+        // When the counters were last reloaded from the database
+        public LocalDateTime getRefreshedAt() {
+            return refreshedAt;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.entity.PaymentIdempotencyKey;
+import com.vehicleservice.repository.PaymentIdempotencyKeyRepository;
+import com.vehicleservice.service.PaymentPipeline.PaymentJob;
+import com.vehicleservice.service.PaymentPipeline.PaymentStatus;
+import com.vehicleservice.strategy.PaymentProcessingStrategy;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Idempotency keys for payment submissions. The first submission with a key runs the payment; a
+// repeat with the same key gets that same payment back (in flight or finished) and never reaches
+// the payment strategy again. A key is claimed in payment_idempotency_keys (PENDING, under the
+// unique constraint) before the payment runs, so duplicates sent to another instance or after a
+// restart are refused as well; the outcome is stored together with the booking update. Only a
+// payment rejected before reaching its strategy gives its key back. Recent keys are held in memory
+// in front of the table, and each key has its own lock, so concurrent duplicates wait only for each other.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class PaymentIdempotencyStore {
+
+    // Keys can be reused for a different payment after this long
+    private static final long KEY_RETENTION_HOURS = 24;
+
+    // Finished keys stay in memory this long; older ones are read back from the table
+    private static final long CACHE_MINUTES = 15;
+
+    // A key left PENDING this long belongs to a payment whose instance went away mid-payment; its
+    // outcome is unknown, so it is reported as timed out rather than run again
+    private static final long PENDING_STALE_MINUTES = 5;
+
+    // Upper bound on keys held in memory
+    private static final int MAX_CACHED_KEYS = 10000;
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    @Autowired
+    private PaymentIdempotencyKeyRepository idempotencyKeyRepository;
+
+    // User and key -> the payment submitted with it
+    private final ConcurrentHashMap<String, KeySlot> slots = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService cleanup = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-idempotency-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PaymentIdempotencyStore() {
+        cleanup.scheduleWithFixedDelay(this::evictQuietly, 5, 5, TimeUnit.MINUTES);
+    }
+
+    /// The payment for the job's idempotency key: the one already submitted with it, or the job itself
+    /// once the key is claimed and the enqueue action has queued it. The key must describe the same
+    /// booking, amount and method each time.
+    public PaymentJob submitOnce(PaymentJob job, Consumer<PaymentJob> enqueue) {
+        String username = job.submittedBy();
+        String idempotencyKey = job.idempotencyKey();
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String slotKey = username + '\n' + idempotencyKey;
+        KeySlot slot = lockSlot(slotKey);
+        try {
+            PaymentJob existing = slot.job;
+            Optional<PaymentIdempotencyKey> stored = Optional.empty();
+            if (existing == null) {
+                stored = idempotencyKeyRepository.findByUsernameAndIdempotencyKey(username, idempotencyKey);
+                if (stored.isPresent() && stored.get().getCreatedAt()
+                        .isAfter(LocalDateTime.now().minusHours(KEY_RETENTION_HOURS))) {
+                    existing = restore(stored.get());
+                    slot.job = existing;
+                }
+            }
+            if (existing != null) {
+                if (!existing.getBookingId().equals(job.getBookingId())
+                        || existing.getAmount().compareTo(job.getAmount()) != 0
+                        || !existing.getPaymentMethod().equalsIgnoreCase(job.getPaymentMethod())) {
+                    throw new IllegalArgumentException("Idempotency key was already used for a different payment");
+                }
+                return existing;
+            }
+
+            if (slots.size() > MAX_CACHED_KEYS) {
+                throw new IllegalStateException("Too many payments in progress, try again shortly");
+            }
+            // An expired row is given up before the key is claimed again
+            stored.ifPresent(expired -> idempotencyKeyRepository.deleteById(expired.getId()));
+            claim(job);
+            try {
+                enqueue.accept(job);
+            } catch (RuntimeException e) {
+                idempotencyKeyRepository.deletePendingByPaymentId(job.getPaymentId());
+                throw e;
+            }
+            slot.job = job;
+            job.whenCompleted().thenAccept(done -> onFinished(slotKey, slot, done));
+            return job;
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    /// Run the booking update for a payment and store the payment's outcome under its idempotency key
+    /// in the same transaction, so a retried submission can never apply the payment a second time
+    @Transactional
+    public void recordOutcome(PaymentJob job, PaymentProcessingStrategy.PaymentResult result, Runnable bookingWrite) {
+        if (bookingWrite != null) {
+            bookingWrite.run();
+        }
+        if (job.idempotencyKey() != null) {
+            store(job, result.isSuccess() ? PaymentIdempotencyKey.Status.SUCCEEDED
+                    : PaymentIdempotencyKey.Status.FAILED, result.getMessage(), result);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleanup.shutdownNow();
+    }
+
+    // Insert the PENDING claim on the job's key; the unique constraint refuses a concurrent claim
+    private void claim(PaymentJob job) {
+        try {
+            idempotencyKeyRepository.saveAndFlush(new PaymentIdempotencyKey(job.submittedBy(), job.idempotencyKey(),
+                    job.getPaymentId(), job.getBookingId(), job.getAmount(), job.getPaymentMethod()));
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("A payment with this idempotency key is already in progress");
+        }
+    }
+
+    // A rejected payment never reached its strategy, so its key is given back; any other outcome is kept
+    // (a charge whose booking update failed, a timeout with unknown outcome) so a retry cannot charge again
+    private void onFinished(String slotKey, KeySlot slot, PaymentJob job) {
+        try {
+            if (job.getStatus() == PaymentStatus.REJECTED) {
+                release(slotKey, slot, job);
+                idempotencyKeyRepository.deletePendingByPaymentId(job.getPaymentId());
+                return;
+            }
+            Optional<PaymentIdempotencyKey> record = idempotencyKeyRepository
+                    .findByUsernameAndIdempotencyKey(job.submittedBy(), job.idempotencyKey());
+            // Outcomes saved with the booking update are already stored
+            if (record.isPresent() && record.get().getStatus() == PaymentIdempotencyKey.Status.PENDING
+                    && record.get().getPaymentId().equals(job.getPaymentId())) {
+                store(job, PaymentIdempotencyKey.Status.valueOf(job.getStatus().name()), job.getMessage(),
+                        job.getResult());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Storing the outcome of payment " + job.getPaymentId() + " failed: " + e.getMessage());
+        }
+    }
+
+    // Write a final status onto the job's key
+    private void store(PaymentJob job, PaymentIdempotencyKey.Status status, String message,
+            PaymentProcessingStrategy.PaymentResult result) {
+        PaymentIdempotencyKey record = idempotencyKeyRepository
+                .findByUsernameAndIdempotencyKey(job.submittedBy(), job.idempotencyKey())
+                .orElseGet(() -> new PaymentIdempotencyKey(job.submittedBy(), job.idempotencyKey(),
+                        job.getPaymentId(), job.getBookingId(), job.getAmount(), job.getPaymentMethod()));
+        record.setStatus(status);
+        record.setMessage(truncate(message));
+        if (result != null) {
+            record.setSuccess(result.isSuccess());
+            record.setTransactionId(result.getTransactionId());
+            record.setProcessedAmount(result.getProcessedAmount());
+            record.setProcessingFees(result.getProcessingFees());
+        }
+        idempotencyKeyRepository.save(record);
+    }
+
+    // Lock the slot of a key, retrying if the slot was released while waiting for its lock
+    private KeySlot lockSlot(String slotKey) {
+        while (true) {
+            KeySlot slot = slots.computeIfAbsent(slotKey, key -> new KeySlot());
+            slot.lock.lock();
+            if (slots.get(slotKey) == slot) {
+                return slot;
+            }
+            slot.lock.unlock();
+        }
+    }
+
+    private void release(String slotKey, KeySlot slot, PaymentJob job) {
+        slot.lock.lock();
+        try {
+            if (slot.job == job) {
+                slot.job = null;
+                slots.remove(slotKey, slot);
+            }
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    private void evictQuietly() {
+        try {
+            LocalDateTime cacheCutoff = LocalDateTime.now().minusMinutes(CACHE_MINUTES);
+            slots.forEach((slotKey, slot) -> {
+                PaymentJob job = slot.job;
+                // Slots left without a payment (the submission failed) go as well
+                if (job == null || job.getCompletedAt() != null && job.getCompletedAt().isBefore(cacheCutoff)) {
+                    release(slotKey, slot, job);
+                }
+            });
+            idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(KEY_RETENTION_HOURS));
+        } catch (RuntimeException e) {
+            System.err.println("Payment idempotency key cleanup failed: " + e.getMessage());
+        }
+    }
+
+    // Finished payment rebuilt from its stored outcome. A pending key is in use by a payment running
+    // on another instance; once stale, its outcome is unknown and it is reported as timed out.
+    private static PaymentJob restore(PaymentIdempotencyKey record) {
+        PaymentStatus status;
+        String message = record.getMessage();
+        if (record.getStatus() == PaymentIdempotencyKey.Status.PENDING) {
+            if (record.getCreatedAt().isAfter(LocalDateTime.now().minusMinutes(PENDING_STALE_MINUTES))) {
+                throw new IllegalStateException("A payment with this idempotency key is already in progress");
+            }
+            status = PaymentStatus.TIMED_OUT;
+            message = "Payment outcome is unknown; please contact staff before paying again";
+        } else {
+            status = PaymentStatus.valueOf(record.getStatus().name());
+        }
+        PaymentProcessingStrategy.PaymentResult result = record.getSuccess() == null ? null
+                : new PaymentProcessingStrategy.PaymentResult(record.getSuccess(), record.getTransactionId(),
+                        record.getMessage(), record.getProcessedAmount(), record.getProcessingFees());
+        return PaymentJob.restored(record.getPaymentId(), record.getBookingId(), record.getAmount(),
+                record.getPaymentMethod(), record.getUsername(), record.getIdempotencyKey(), status, message,
+                result, record.getCreatedAt());
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH)
+                : message;
+    }
+
+    // The payment submitted with one key, and the lock its duplicates wait on
+    private static class KeySlot {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile PaymentJob job;
+    }
+}
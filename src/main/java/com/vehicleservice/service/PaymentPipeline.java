@@ -0,0 +1,350 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.entity.Booking;
+import com.vehicleservice.strategy.PaymentProcessingStrategy;
+import com.vehicleservice.strategy.PaymentProcessingStrategyManager;
+import com.vehicleservice.strategy.PaymentUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Asynchronous payment processing. A submitted payment gets an id straight away and is processed on
+// a virtual thread, so gateway latency never holds a request thread. Concurrency limits, time limits
+// and circuit breakers per strategy are applied by PaymentProcessingStrategyManager; the outcome can
+// be polled by id or pushed to an open Server-Sent Events stream.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class PaymentPipeline {
+
+    // Completed payments stay available for polling this long
+    private static final long RETENTION_MINUTES = 30;
+
+    // Upper bound on payments tracked at once (pending plus retained)
+    private static final int MAX_TRACKED_PAYMENTS = 10000;
+
+    // Open status streams are closed after this long
+    private static final long STREAM_TIMEOUT_MS = 5 * 60 * 1000L;
+
+    // Allowance on top of the strategy call for loading and saving the booking
+    private static final long SAVE_ALLOWANCE_MS = 5000;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PaymentProcessingStrategyManager paymentProcessingStrategyManager;
+
+    @Autowired
+    private PaymentIdempotencyStore paymentIdempotencyStore;
+
+    // One virtual thread per payment; blocking on the gateway parks the virtual thread, not a carrier
+    private final ExecutorService workers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("payment-", 0).factory());
+
+    // Clears out old payments
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-pipeline-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentHashMap<String, PaymentJob> payments = new ConcurrentHashMap<>();
+
+    public PaymentPipeline() {
+        timer.scheduleWithFixedDelay(this::evictExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /// Queue a payment and return it at once in the QUEUED state. With an idempotency key, a repeated
+    /// submission returns the payment first submitted with that key instead of queuing another one.
+    public PaymentJob submit(Long bookingId, BigDecimal amount, String paymentMethod, String submittedBy,
+            String idempotencyKey) {
+        PaymentProcessingStrategy strategy = paymentProcessingStrategyManager
+                .getStrategyForPaymentMethod(paymentMethod);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unsupported payment method: " + paymentMethod);
+        }
+        PaymentJob job = new PaymentJob(UUID.randomUUID().toString(), bookingId, amount, paymentMethod,
+                submittedBy, idempotencyKey);
+        if (idempotencyKey == null) {
+            return enqueue(job);
+        }
+
+        PaymentJob submitted = paymentIdempotencyStore.submitOnce(job, this::enqueue);
+        // A payment restored from the idempotency table becomes pollable again, within the same bound
+        if (!payments.containsKey(submitted.paymentId)) {
+            track(submitted);
+        }
+        return submitted;
+    }
+
+    private PaymentJob enqueue(PaymentJob job) {
+        track(job);
+        workers.execute(() -> run(job));
+        return job;
+    }
+
+    // Start tracking a payment, refusing it once MAX_TRACKED_PAYMENTS are tracked
+    private void track(PaymentJob job) {
+        if (payments.size() >= MAX_TRACKED_PAYMENTS) {
+            throw new IllegalStateException("Too many payments in progress, try again shortly");
+        }
+        payments.putIfAbsent(job.paymentId, job);
+    }
+
+    /// A payment by id, only to the user who submitted it
+    public Optional<PaymentJob> getPayment(String paymentId, String username) {
+        PaymentJob job = payments.get(paymentId);
+        return job != null && job.submittedBy().equals(username) ? Optional.of(job) : Optional.empty();
+    }
+
+    /// Longest a payment can take from submission to outcome (the strategy call plus saving it)
+    public long getMaxWaitMillis() {
+        return paymentProcessingStrategyManager.getMaxCallMillis() + SAVE_ALLOWANCE_MS;
+    }
+
+    /// Open a status stream: the current status is sent at once as a "status" event and the outcome
+    /// as a "completed" event, after which the stream closes
+    public SseEmitter subscribe(PaymentJob job) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            return emitter;
+        }
+        job.completion.thenAccept(done -> {
+            try {
+                emitter.send(SseEmitter.event().name("completed").data(done));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+            }
+        });
+        return emitter;
+    }
+
+    /// Payments by status
+    public Map<String, Object> getStats() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (PaymentStatus status : PaymentStatus.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+        for (PaymentJob job : payments.values()) {
+            byStatus.merge(job.getStatus().name(), 1L, Long::sum);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("payments", byStatus);
+        stats.put("maxWaitMs", getMaxWaitMillis());
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(PaymentJob job) {
+        if (!job.status.compareAndSet(PaymentStatus.QUEUED, PaymentStatus.PROCESSING)) {
+            return;
+        }
+        try {
+            process(job);
+        } catch (PaymentUnavailableException e) {
+            // The strategy was not reached or did not answer in time; no outcome, so the payment may be retried
+            job.finish(PaymentStatus.PROCESSING,
+                    e.getReason() == PaymentUnavailableException.Reason.TIMED_OUT ? PaymentStatus.TIMED_OUT
+                            : PaymentStatus.REJECTED,
+                    e.getMessage(), null);
+        } catch (RuntimeException e) {
+            System.err.println("Payment " + job.paymentId + " failed: " + e.getMessage());
+            job.fail("Payment failed: " + e.getMessage());
+        }
+    }
+
+    // Charge through the strategy and record the payment on the booking; the booking is only saved
+    // once the payment has moved to SAVING. No lock is held during the strategy call: the paid amount
+    // is applied to the row-locked booking when the payment is recorded.
+    private void process(PaymentJob job) {
+        Optional<Booking> bookingOpt = bookingService.getBookingById(job.bookingId);
+        if (bookingOpt.isEmpty()) {
+            job.finish(PaymentStatus.PROCESSING, PaymentStatus.FAILED, "Booking not found", null);
+            return;
+        }
+
+        Booking booking = bookingOpt.get();
+        PaymentProcessingStrategy.PaymentResult result = bookingService.processPayment(booking, job.amount,
+                job.paymentMethod);
+        if (!job.status.compareAndSet(PaymentStatus.PROCESSING, PaymentStatus.SAVING)) {
+            return;
+        }
+
+        // The booking update, its ledger entries and the outcome stored under the idempotency key
+        // commit together
+        try {
+            if (result.isSuccess()) {
+                paymentIdempotencyStore.recordOutcome(job, result,
+                        () -> bookingService.recordPayment(job.bookingId, job.paymentMethod, result));
+            } else {
+                paymentIdempotencyStore.recordOutcome(job, result, null);
+            }
+        } catch (RuntimeException e) {
+            // The charge stays attached to the payment (and its idempotency key) so it is never repeated
+            System.err.println("Payment " + job.paymentId + " could not be saved: " + e.getMessage());
+            job.finish(PaymentStatus.SAVING, PaymentStatus.FAILED, result.isSuccess()
+                    ? "Payment " + result.getTransactionId() + " was charged but could not be recorded on "
+                            + "the booking; please contact staff before paying again"
+                    : result.getMessage(), result);
+            return;
+        }
+        job.finish(PaymentStatus.SAVING, result.isSuccess() ? PaymentStatus.SUCCEEDED : PaymentStatus.FAILED,
+                result.getMessage(), result);
+    }
+
+    private void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(RETENTION_MINUTES);
+        payments.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+    }
+
+    public enum PaymentStatus {
+        QUEUED, PROCESSING, SAVING, SUCCEEDED, FAILED, TIMED_OUT, REJECTED
+    }
+
+    // One submitted payment; the status only moves forward, and exactly one transition completes it
+    public static class PaymentJob {
+        private final String paymentId;
+        private final Long bookingId;
+        private final BigDecimal amount;
+        private final String paymentMethod;
+        private final String submittedBy;
+        private final String idempotencyKey;
+        private final LocalDateTime submittedAt;
+        private final AtomicReference<PaymentStatus> status = new AtomicReference<>(PaymentStatus.QUEUED);
+        private final CompletableFuture<PaymentJob> completion = new CompletableFuture<>();
+        private volatile String message;
+        private volatile PaymentProcessingStrategy.PaymentResult result;
+        private volatile LocalDateTime completedAt;
+
+        PaymentJob(String paymentId, Long bookingId, BigDecimal amount, String paymentMethod, String submittedBy,
+                String idempotencyKey) {
+            this.paymentId = paymentId;
+            this.bookingId = bookingId;
+            this.amount = amount;
+            this.paymentMethod = paymentMethod;
+            this.submittedBy = submittedBy;
+            this.idempotencyKey = idempotencyKey;
+            this.submittedAt = LocalDateTime.now();
+        }
+
+        // Finished payment rebuilt from the outcome stored under its idempotency key
+        static PaymentJob restored(String paymentId, Long bookingId, BigDecimal amount, String paymentMethod,
+                String submittedBy, String idempotencyKey, PaymentStatus status, String message,
+                PaymentProcessingStrategy.PaymentResult result, LocalDateTime completedAt) {
+            PaymentJob job = new PaymentJob(paymentId, bookingId, amount, paymentMethod, submittedBy,
+                    idempotencyKey);
+            job.status.set(status);
+            job.message = message;
+            job.result = result;
+            job.completedAt = completedAt;
+            job.completion.complete(job);
+            return job;
+        }
+
+        // Move from the expected status to a final one; false if the payment was not in the expected status
+        boolean finish(PaymentStatus expected, PaymentStatus outcome, String outcomeMessage,
+                PaymentProcessingStrategy.PaymentResult outcomeResult) {
+            if (!status.compareAndSet(expected, outcome)) {
+                return false;
+            }
+            message = outcomeMessage;
+            result = outcomeResult;
+            completedAt = LocalDateTime.now();
+            completion.complete(this);
+            return true;
+        }
+
+        // Fail a payment that has not reached a final status yet
+        void fail(String failureMessage) {
+            PaymentStatus current = status.get();
+            while ((current == PaymentStatus.PROCESSING || current == PaymentStatus.SAVING)
+                    && !finish(current, PaymentStatus.FAILED, failureMessage, null)) {
+                current = status.get();
+            }
+        }
+
+        String submittedBy() {
+            return submittedBy;
+        }
+
+        String idempotencyKey() {
+            return idempotencyKey;
+        }
+
+        // Strategy result, if the strategy answered
+        PaymentProcessingStrategy.PaymentResult getResult() {
+            return result;
+        }
+
+        /// Completes with the payment once it has reached a final status
+        public CompletableFuture<PaymentJob> whenCompleted() {
+            return completion;
+        }
+
+        public String getPaymentId() {
+            return paymentId;
+        }
+
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public String getPaymentMethod() {
+            return paymentMethod;
+        }
+
+        public PaymentStatus getStatus() {
+            return status.get();
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getTransactionId() {
+            return result != null ? result.getTransactionId() : null;
+        }
+
+        public BigDecimal getProcessingFees() {
+            return result != null ? result.getProcessingFees() : null;
+        }
+
+        public LocalDateTime getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public LocalDateTime getCompletedAt() {
+            return completedAt;
+        }
+    }
+}
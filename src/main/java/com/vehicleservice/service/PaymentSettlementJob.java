@@ -0,0 +1,159 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.entity.PaymentLedgerEntry;
+import com.vehicleservice.entity.PaymentSettlement;
+import com.vehicleservice.repository.PaymentLedgerRepository;
+import com.vehicleservice.repository.PaymentSettlementRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Daily payment settlement. Each finished day's ledger entries are streamed through a cursor and
+// folded into running totals per payment method, so memory stays the same however many payments a
+// day holds. A day is settled only once the next one is over too, so an entry stamped just before
+// midnight whose transaction commits after it is already in the ledger when its day is settled.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class PaymentSettlementJob {
+
+    // Hours between checks for days that are finished but not settled yet
+    private static final long CHECK_INTERVAL_HOURS = 1;
+
+    // Days a finished day is left open before it is settled, for transactions committing across midnight
+    private static final int SETTLEMENT_LAG_DAYS = 1;
+
+    // Upper bound on days settled by one check, so a first run over a long history is spread out
+    private static final int MAX_DAYS_PER_CHECK = 31;
+
+    // Settlement key of ledger entries without a payment method (refunds of bookings paid before the ledger)
+    private static final String UNSPECIFIED_METHOD = "UNSPECIFIED";
+
+    @Autowired
+    private PaymentLedgerRepository paymentLedgerRepository;
+
+    @Autowired
+    private PaymentSettlementRepository paymentSettlementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-settlement");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /// Settle outstanding days now and then check again every hour
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::settleOutstandingQuietly, 0, CHECK_INTERVAL_HOURS, TimeUnit.HOURS);
+    }
+
+    /// Settle every finished day after the last settled one up to the day before yesterday, oldest first;
+    /// returns the days settled
+    public List<LocalDate> settleOutstanding() {
+        LocalDate lastSettled = paymentSettlementRepository.findLastSettlementDate();
+        LocalDate day;
+        if (lastSettled != null) {
+            day = lastSettled.plusDays(1);
+        } else {
+            LocalDateTime firstRecordedAt = paymentLedgerRepository.findFirstRecordedAt();
+            if (firstRecordedAt == null) {
+                return List.of();
+            }
+            day = firstRecordedAt.toLocalDate();
+        }
+
+        List<LocalDate> settled = new ArrayList<>();
+        LocalDate firstOpenDay = LocalDate.now().minusDays(SETTLEMENT_LAG_DAYS);
+        while (day.isBefore(firstOpenDay) && settled.size() < MAX_DAYS_PER_CHECK) {
+            settle(day);
+            settled.add(day);
+            day = day.plusDays(1);
+        }
+        return settled;
+    }
+
+    /// Settle one finished day before yesterday, replacing any earlier settlement of it
+    public List<PaymentSettlement> settle(LocalDate day) {
+        if (!day.isBefore(LocalDate.now().minusDays(SETTLEMENT_LAG_DAYS))) {
+            throw new IllegalArgumentException("Only days before yesterday can be settled: " + day);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            // Running totals per payment method; the only state that grows is one entry per method
+            Map<String, Totals> totals = new TreeMap<>();
+            try (Stream<PaymentLedgerRepository.SettlementRow> rows = paymentLedgerRepository
+                    .streamForSettlement(day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+                rows.forEach(row -> totals.computeIfAbsent(
+                        row.getPaymentMethod() != null ? row.getPaymentMethod() : UNSPECIFIED_METHOD,
+                        method -> new Totals()).add(row));
+            }
+
+            paymentSettlementRepository.deleteBySettlementDay(day);
+            List<PaymentSettlement> settlements = new ArrayList<>(totals.size());
+            totals.forEach((method, methodTotals) -> settlements.add(new PaymentSettlement(day, method,
+                    methodTotals.charges, methodTotals.fees, methodTotals.refunds, methodTotals.entries)));
+            return paymentSettlementRepository.saveAll(settlements);
+        });
+    }
+
+    /// Settlements of a date range, by day then payment method
+    public List<PaymentSettlement> getSettlements(LocalDate from, LocalDate to) {
+        return paymentSettlementRepository.findBySettlementDateBetweenOrderBySettlementDateAscPaymentMethodAsc(
+                from, to);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void settleOutstandingQuietly() {
+        try {
+            List<LocalDate> settled = settleOutstanding();
+            if (!settled.isEmpty()) {
+                System.out.println("Payment settlement completed for " + settled.size() + " day(s) up to "
+                        + settled.get(settled.size() - 1));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Payment settlement failed: " + e.getMessage());
+        }
+    }
+
+    // Running totals of one payment method
+    private static class Totals {
+        private BigDecimal charges = BigDecimal.ZERO;
+        private BigDecimal fees = BigDecimal.ZERO;
+        private BigDecimal refunds = BigDecimal.ZERO;
+        private int entries;
+
+        void add(PaymentLedgerRepository.SettlementRow row) {
+            entries++;
+            if (row.getEntryType() == PaymentLedgerEntry.EntryType.CHARGE) {
+                charges = charges.add(row.getAmount());
+            } else if (row.getEntryType() == PaymentLedgerEntry.EntryType.FEE) {
+                fees = fees.add(row.getAmount());
+            } else {
+                refunds = refunds.add(row.getAmount());
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.service.BookingService.SlotAvailabilityView;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded cache of computed slot availability keyed by date and slot strategy category
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class SlotAvailabilityCache {
+
+    // Upper bound on the number of dates held in the cache
+    private static final int MAX_CACHED_DAYS = 120;
+
+    // Cached slot lists per date, then per slot strategy category
+    private final ConcurrentHashMap<LocalDate, ConcurrentHashMap<String, CachedSlots>> entries = new ConcurrentHashMap<>();
+
+    // Cache statistics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    /// Get cached slots computed from the given occupancy, or null if absent or stale
+    public SlotAvailabilityView get(LocalDate date, String category, SlotOccupancyIndex.DayOccupancy occupancy) {
+        Map<String, CachedSlots> dayEntries = entries.get(date);
+        CachedSlots cached = dayEntries != null ? dayEntries.get(category) : null;
+
+        // Entries computed from an older occupancy state are treated as misses
+        if (cached != null && cached.occupancy == occupancy && cached.version == occupancy.getVersion()) {
+            hits.incrementAndGet();
+            return cached.slots;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /// Store slots computed from the given occupancy version
+    public SlotAvailabilityView put(LocalDate date, String category, SlotOccupancyIndex.DayOccupancy occupancy,
+            long version, SlotAvailabilityView slots) {
+        entries.computeIfAbsent(date, key -> new ConcurrentHashMap<>())
+                .put(category, new CachedSlots(occupancy, version, slots));
+
+        if (entries.size() > MAX_CACHED_DAYS) {
+            evictOldestDay(date);
+        }
+        return slots;
+    }
+
+    /// Evict every category cached for a date
+    public void invalidate(LocalDate date) {
+        if (date != null && entries.remove(date) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /// Evict everything
+    public void clear() {
+        entries.clear();
+        flushes.incrementAndGet();
+    }
+
+    /// Get cache statistics
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedDays", entries.size());
+        stats.put("maxCachedDays", MAX_CACHED_DAYS);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", lookups > 0 ? (double) hitCount / lookups : 0.0);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("flushes", flushes.get());
+        return stats;
+    }
+
+    // Evict the date furthest in the past, never the one just stored
+    private void evictOldestDay(LocalDate keep) {
+        LocalDate oldest = null;
+        for (LocalDate date : entries.keySet()) {
+            if (!date.equals(keep) && (oldest == null || date.isBefore(oldest))) {
+                oldest = date;
+            }
+        }
+        if (oldest != null && entries.remove(oldest) != null) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Cached slot list together with the occupancy state it was computed from
+    private static class CachedSlots {
+        private final SlotOccupancyIndex.DayOccupancy occupancy;
+        private final long version;
+        private final SlotAvailabilityView slots;
+
+        CachedSlots(SlotOccupancyIndex.DayOccupancy occupancy, long version, SlotAvailabilityView slots) {
+            this.occupancy = occupancy;
+            this.version = version;
+            this.slots = slots;
+        }
+    }
+}
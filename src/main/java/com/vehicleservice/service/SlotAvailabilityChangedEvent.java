@@ -0,0 +1,17 @@
+package com.vehicleservice.service;
+
+import java.time.LocalDate;
+
+// Published by BookingService after a committed booking write changes slot availability for a date
+public class SlotAvailabilityChangedEvent {
+
+    private final LocalDate date;
+
+    public SlotAvailabilityChangedEvent(LocalDate date) {
+        this.date = date;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+}
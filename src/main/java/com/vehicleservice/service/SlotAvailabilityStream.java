@@ -0,0 +1,195 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.service.BookingService.TimeSlot;
+import com.vehicleservice.strategy.SlotGenerationStrategyManager;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-Sent Events channel per date that pushes slot availability changes to open booking forms
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class SlotAvailabilityStream {
+
+    // Open streams are closed after this long; EventSource clients reconnect automatically
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    // Upper bounds on open streams, overall and per date
+    private static final int MAX_STREAMS = 1000;
+    private static final int MAX_STREAMS_PER_DATE = 200;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SlotGenerationStrategyManager slotGenerationStrategyManager;
+
+    // Open streams per date
+    private final ConcurrentHashMap<LocalDate, CopyOnWriteArrayList<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // Last slots pushed per date and slot strategy category, used to work out deltas
+    private final ConcurrentHashMap<LocalDate, ConcurrentHashMap<String, List<TimeSlot>>> published = new ConcurrentHashMap<>();
+
+    // Open streams across all dates
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    // Fan-out runs off the booking request thread so writes never wait on slow clients
+    private final ExecutorService fanOut = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "slot-availability-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /// Open a stream for a date; the current slots are sent immediately as a "snapshot" event.
+    /// Throws IllegalStateException when the stream limit (overall or for the date) is reached.
+    public SseEmitter subscribe(LocalDate date, String serviceType) {
+        String category = slotGenerationStrategyManager.getStrategyForService(serviceType).getServiceCategory();
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, serviceType, category);
+
+        if (openStreams.incrementAndGet() > MAX_STREAMS) {
+            openStreams.decrementAndGet();
+            throw new IllegalStateException("Too many open slot streams, try again later");
+        }
+        boolean[] added = new boolean[1];
+        subscribers.compute(date, (key, dateSubscribers) -> {
+            CopyOnWriteArrayList<Subscriber> list = dateSubscribers != null ? dateSubscribers
+                    : new CopyOnWriteArrayList<>();
+            if (list.size() < MAX_STREAMS_PER_DATE) {
+                added[0] = list.add(subscriber);
+            }
+            return list.isEmpty() ? null : list;
+        });
+        if (!added[0]) {
+            openStreams.decrementAndGet();
+            throw new IllegalStateException("Too many open slot streams for " + date + ", try again later");
+        }
+        emitter.onCompletion(() -> unsubscribe(date, subscriber));
+        emitter.onTimeout(() -> unsubscribe(date, subscriber));
+        emitter.onError(error -> unsubscribe(date, subscriber));
+
+        List<TimeSlot> slots = bookingService.getAvailableSlots(date, serviceType);
+        published.computeIfAbsent(date, key -> new ConcurrentHashMap<>()).putIfAbsent(category, slots);
+        send(date, subscriber, "snapshot", slots);
+        return emitter;
+    }
+
+    /// Push slot deltas for a date after a booking write
+    @EventListener
+    public void onSlotAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        LocalDate date = event.getDate();
+        if (subscribers.containsKey(date)) {
+            fanOut.execute(() -> publish(date));
+        }
+    }
+
+    /// Number of open streams per date
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int streams = 0;
+        for (List<Subscriber> dateSubscribers : subscribers.values()) {
+            streams += dateSubscribers.size();
+        }
+        stats.put("dates", subscribers.size());
+        stats.put("openStreams", streams);
+        stats.put("maxStreams", MAX_STREAMS);
+        stats.put("maxStreamsPerDate", MAX_STREAMS_PER_DATE);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fanOut.shutdownNow();
+    }
+
+    private void publish(LocalDate date) {
+        List<Subscriber> dateSubscribers = subscribers.get(date);
+        if (dateSubscribers == null || dateSubscribers.isEmpty()) {
+            return;
+        }
+
+        // Availability is computed once per slot strategy category, not once per open form
+        Map<String, List<TimeSlot>> deltas = new LinkedHashMap<>();
+        Map<String, List<TimeSlot>> previous = published.computeIfAbsent(date, key -> new ConcurrentHashMap<>());
+        for (Subscriber subscriber : dateSubscribers) {
+            if (deltas.containsKey(subscriber.category)) {
+                continue;
+            }
+            List<TimeSlot> slots = bookingService.getAvailableSlots(date, subscriber.serviceType);
+            deltas.put(subscriber.category, changedSlots(previous.put(subscriber.category, slots), slots));
+        }
+
+        for (Subscriber subscriber : dateSubscribers) {
+            List<TimeSlot> delta = deltas.get(subscriber.category);
+            if (delta != null && !delta.isEmpty()) {
+                send(date, subscriber, "delta", delta);
+            }
+        }
+    }
+
+    // Slots whose availability differs from what was last pushed (every slot if nothing was pushed yet)
+    private static List<TimeSlot> changedSlots(List<TimeSlot> before, List<TimeSlot> after) {
+        if (before == null || before.size() != after.size()) {
+            return after;
+        }
+
+        List<TimeSlot> changed = new ArrayList<>();
+        for (int i = 0; i < after.size(); i++) {
+            TimeSlot slot = after.get(i);
+            if (before.get(i).getRemainingSlots() != slot.getRemainingSlots()) {
+                changed.add(slot);
+            }
+        }
+        return changed;
+    }
+
+    private void send(LocalDate date, Subscriber subscriber, String eventName, List<TimeSlot> slots) {
+        try {
+            subscriber.emitter.send(SseEmitter.event().name(eventName).data(slots));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            unsubscribe(date, subscriber);
+        }
+    }
+
+    private void unsubscribe(LocalDate date, Subscriber subscriber) {
+        subscribers.computeIfPresent(date, (key, dateSubscribers) -> {
+            // Completion, timeout and error can all fire for one stream; it is counted down once
+            if (dateSubscribers.remove(subscriber)) {
+                openStreams.decrementAndGet();
+            }
+            if (dateSubscribers.isEmpty()) {
+                published.remove(date);
+                return null;
+            }
+            return dateSubscribers;
+        });
+    }
+
+    // One open stream and the slot strategy category it follows
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final String serviceType;
+        private final String category;
+
+        Subscriber(SseEmitter emitter, String serviceType, String category) {
+            this.emitter = emitter;
+            this.serviceType = serviceType;
+            this.category = category;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.vehicleservice.service;
+
+import com.vehicleservice.entity.Booking;
+import com.vehicleservice.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory per-date slot occupancy index used by BookingService availability lookups.
+// Loaded days are kept up to date by recordBooking/removeBooking; a day that is still being read
+// from the database when a write arrives is read again, so the write cannot be lost.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class SlotOccupancyIndex {
+
+    // Number of minute buckets in a day
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Upper bound on the number of dates kept in memory
+    private static final int MAX_TRACKED_DAYS = 400;
+
+    // Reads of a day that keep racing with writes; after the last one the day is returned uncached
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    // Loaded days keyed by date
+    private final ConcurrentHashMap<LocalDate, DayOccupancy> days = new ConcurrentHashMap<>();
+
+    // Date each tracked booking is currently counted under (used when a booking moves or is deleted)
+    private final ConcurrentHashMap<Long, LocalDate> bookingDates = new ConcurrentHashMap<>();
+
+    // Incremented before every booking write is applied; a load that sees it change may have missed a write
+    private final AtomicLong writeCount = new AtomicLong();
+
+    /// Get the occupancy of a date, loading it from the database on first access
+    public DayOccupancy getDay(LocalDate date) {
+        DayOccupancy day = days.get(date);
+        if (day != null) {
+            return day;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            long writesBefore = writeCount.get();
+            DayOccupancy loaded = loadDay(date);
+            day = install(date, loaded, writesBefore);
+            if (day != null) {
+                if (days.size() > MAX_TRACKED_DAYS) {
+                    evictOldestDay(date);
+                }
+                return day;
+            }
+            if (attempt == MAX_LOAD_ATTEMPTS) {
+                // Accurate as of its read, but not kept
+                return loaded;
+            }
+        }
+    }
+
+    /// Get the occupancy of a window of dates, loading any missing dates with a single range query
+    public Map<LocalDate, DayOccupancy> getDays(LocalDate startDate, int numberOfDays) {
+        Map<LocalDate, DayOccupancy> result = new HashMap<>();
+        LocalDate endDate = startDate.plusDays(numberOfDays);
+
+        boolean missing = false;
+        for (LocalDate date = startDate; date.isBefore(endDate); date = date.plusDays(1)) {
+            DayOccupancy day = days.get(date);
+            if (day == null) {
+                missing = true;
+                break;
+            }
+            result.put(date, day);
+        }
+        if (!missing) {
+            return result;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            long writesBefore = writeCount.get();
+            boolean complete = true;
+            for (Map.Entry<LocalDate, DayOccupancy> entry : loadRange(startDate, endDate).entrySet()) {
+                // Dates already loaded are kept, since they are maintained incrementally
+                DayOccupancy day = days.get(entry.getKey());
+                if (day == null) {
+                    day = install(entry.getKey(), entry.getValue(), writesBefore);
+                }
+                if (day == null) {
+                    if (attempt < MAX_LOAD_ATTEMPTS) {
+                        complete = false;
+                        continue;
+                    }
+                    // Accurate as of its read, but not kept
+                    day = entry.getValue();
+                }
+                result.put(entry.getKey(), day);
+            }
+            if (complete) {
+                break;
+            }
+        }
+        while (days.size() > MAX_TRACKED_DAYS && evictOldestDayOutside(startDate, endDate)) {
+            // Keep evicting past dates until back under the limit
+        }
+        return result;
+    }
+
+    /// Record a booking at its current date and time, moving it if it was counted elsewhere.
+    /// Returns the date the booking was previously counted under, or null if it was not tracked.
+    public LocalDate recordBooking(Long bookingId, LocalDateTime bookingDate) {
+        if (bookingId == null) {
+            return null;
+        }
+
+        writeCount.incrementAndGet();
+        LocalDate newDate = bookingDate != null ? bookingDate.toLocalDate() : null;
+        LocalDate previousDate = bookingDates.get(bookingId);
+        if (previousDate != null && !previousDate.equals(newDate)) {
+            DayOccupancy previousDay = days.get(previousDate);
+            if (previousDay != null) {
+                previousDay.remove(bookingId);
+            }
+            bookingDates.remove(bookingId, previousDate);
+        }
+
+        if (newDate == null) {
+            return previousDate;
+        }
+
+        // Dates that are not loaded yet will read the booking from the database on first access
+        DayOccupancy day = days.get(newDate);
+        if (day != null) {
+            day.add(bookingId, minuteOfDay(bookingDate));
+            bookingDates.put(bookingId, newDate);
+        }
+        return previousDate;
+    }
+
+    /// Remove a deleted booking from the index.
+    /// Returns the date the booking was counted under, or null if it was not tracked.
+    public LocalDate removeBooking(Long bookingId) {
+        if (bookingId == null) {
+            return null;
+        }
+
+        writeCount.incrementAndGet();
+        LocalDate previousDate = bookingDates.remove(bookingId);
+        if (previousDate != null) {
+            DayOccupancy day = days.get(previousDate);
+            if (day != null) {
+                day.remove(bookingId);
+            }
+        }
+        return previousDate;
+    }
+
+    /// Drop every loaded date so the next lookup reloads from the database
+    public void clear() {
+        days.clear();
+        bookingDates.clear();
+    }
+
+    /// Number of dates currently held in memory
+    public int getTrackedDayCount() {
+        return days.size();
+    }
+
+    private DayOccupancy loadDay(LocalDate date) {
+        DayOccupancy day = new DayOccupancy(date);
+        for (Booking booking : bookingRepository.findByBookingDate(date)) {
+            if (booking.getId() != null && booking.getBookingDate() != null) {
+                day.add(booking.getId(), minuteOfDay(booking.getBookingDate()));
+            }
+        }
+        return day;
+    }
+
+    // Bucket every booking in [startDate, endDate) by day
+    private Map<LocalDate, DayOccupancy> loadRange(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, DayOccupancy> loaded = new HashMap<>();
+        for (LocalDate date = startDate; date.isBefore(endDate); date = date.plusDays(1)) {
+            loaded.put(date, new DayOccupancy(date));
+        }
+        List<Booking> bookings = bookingRepository.findByBookingDateRange(startDate.atStartOfDay(),
+                endDate.atStartOfDay());
+        for (Booking booking : bookings) {
+            if (booking.getId() == null || booking.getBookingDate() == null) {
+                continue;
+            }
+            DayOccupancy day = loaded.get(booking.getBookingDate().toLocalDate());
+            if (day != null) {
+                day.add(booking.getId(), minuteOfDay(booking.getBookingDate()));
+            }
+        }
+        return loaded;
+    }
+
+    // Install a day read from the database. A write counted after writesBefore may be missing from it, so
+    // it is taken out again and null returned. A write counted later finds the day installed and applies
+    // to it (the write is counted before it looks the day up, and the day is installed before the check).
+    private DayOccupancy install(LocalDate date, DayOccupancy loaded, long writesBefore) {
+        DayOccupancy existing = days.putIfAbsent(date, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        List<Long> bookingIds = loaded.trackedBookings();
+        bookingIds.forEach(id -> bookingDates.put(id, date));
+        if (writeCount.get() == writesBefore) {
+            return loaded;
+        }
+
+        days.remove(date, loaded);
+        bookingIds.forEach(id -> bookingDates.remove(id, date));
+        return null;
+    }
+
+    // Evict the date furthest in the past, never the one just requested
+    private void evictOldestDay(LocalDate keep) {
+        evictOldestDayOutside(keep, keep.plusDays(1));
+    }
+
+    // Evict the date furthest in the past outside [keepFrom, keepUntil); returns false if none qualifies
+    private boolean evictOldestDayOutside(LocalDate keepFrom, LocalDate keepUntil) {
+        LocalDate oldest = null;
+        for (LocalDate date : days.keySet()) {
+            boolean kept = !date.isBefore(keepFrom) && date.isBefore(keepUntil);
+            if (!kept && (oldest == null || date.isBefore(oldest))) {
+                oldest = date;
+            }
+        }
+        if (oldest == null) {
+            return false;
+        }
+
+        DayOccupancy evicted = days.remove(oldest);
+        if (evicted != null) {
+            final LocalDate evictedDate = oldest;
+            evicted.trackedBookings().forEach(id -> bookingDates.remove(id, evictedDate));
+        }
+        return true;
+    }
+
+    static int minuteOfDay(LocalDateTime dateTime) {
+        return dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+
+    static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /// Booking counts for one date stored as a cumulative per-minute array
+    public static class DayOccupancy {
+        private final LocalDate date;
+
+        // Minute of day for every booking counted on this date (makes adds idempotent)
+        private final Map<Long, Integer> minuteByBooking = new HashMap<>();
+
+        // cumulative[m] = number of bookings starting before minute m; replaced on every write
+        private volatile int[] cumulative = new int[MINUTES_PER_DAY + 1];
+
+        // Incremented after every change so derived results can detect that they are stale
+        private volatile long version;
+
+        DayOccupancy(LocalDate date) {
+            this.date = date;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        /// Number of bookings whose start time falls within [startTime, endTime)
+        public int countBetween(LocalTime startTime, LocalTime endTime) {
+            int start = minuteOfDay(startTime);
+            // A slot ending at midnight wraps to 00:00
+            int end = endTime.isAfter(startTime) ? minuteOfDay(endTime) : MINUTES_PER_DAY;
+            return countBetween(start, end);
+        }
+
+        /// Number of bookings whose start minute falls within [startMinute, endMinute)
+        public int countBetween(int startMinute, int endMinute) {
+            int[] counts = cumulative;
+            return counts[Math.min(endMinute, MINUTES_PER_DAY)] - counts[Math.max(startMinute, 0)];
+        }
+
+        /// Total number of bookings on this date
+        public int getBookingCount() {
+            return cumulative[MINUTES_PER_DAY];
+        }
+
+        /// Change counter; read it before computing anything derived from this day
+        public long getVersion() {
+            return version;
+        }
+
+        synchronized void add(Long bookingId, int minute) {
+            Integer previousMinute = minuteByBooking.put(bookingId, minute);
+            if (previousMinute != null && previousMinute == minute) {
+                return;
+            }
+
+            int[] updated = cumulative.clone();
+            if (previousMinute != null) {
+                shift(updated, previousMinute, -1);
+            }
+            shift(updated, minute, 1);
+            cumulative = updated;
+            version++;
+        }
+
+        synchronized void remove(Long bookingId) {
+            Integer previousMinute = minuteByBooking.remove(bookingId);
+            if (previousMinute == null) {
+                return;
+            }
+
+            int[] updated = cumulative.clone();
+            shift(updated, previousMinute, -1);
+            cumulative = updated;
+            version++;
+        }
+
+        synchronized List<Long> trackedBookings() {
+            return List.copyOf(minuteByBooking.keySet());
+        }
+
+        private static void shift(int[] counts, int minute, int delta) {
+            for (int i = minute + 1; i <= MINUTES_PER_DAY; i++) {
+                counts[i] += delta;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.vehicleservice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Striped locks that serialize slot capacity checks and inserts for the same slot only
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class SlotReservationLocks {
+
+    // Number of lock stripes; unrelated slots only contend when they hash to the same stripe
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public SlotReservationLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /// Lock every given slot (keyed by category and start minute) on a date.
+    /// Stripes are always taken in ascending order so overlapping lock sets cannot deadlock.
+    /// Returns the action that releases them again.
+    public Runnable lockSlots(LocalDate date, Collection<SlotKey> slots) {
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (SlotKey slot : slots) {
+            stripeIndexes.add(stripeFor(date, slot));
+        }
+
+        for (int index : stripeIndexes) {
+            stripes[index].lock();
+        }
+        return () -> stripeIndexes.descendingSet().forEach(index -> stripes[index].unlock());
+    }
+
+    private static int stripeFor(LocalDate date, SlotKey slot) {
+        int hash = 31 * (31 * date.hashCode() + slot.getCategory().hashCode()) + slot.getStartMinute();
+        return Math.floorMod(hash ^ (hash >>> 16), STRIPES);
+    }
+
+    /// A slot of one strategy category, identified by its start minute of day
+    public static class SlotKey {
+        private final String category;
+        private final int startMinute;
+
+        public SlotKey(String category, int startMinute) {
+            this.category = category;
+            this.startMinute = startMinute;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public int getStartMinute() {
+            return startMinute;
+        }
+    }
+}
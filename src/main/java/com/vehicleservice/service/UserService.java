@@ -3,6 +3,7 @@ package com.vehicleservice.service;
 import com.vehicleservice.entity.Role;
 import com.vehicleservice.entity.User;
 import com.vehicleservice.entity.Technician;
+import com.vehicleservice.repository.BookingRepository;
 import com.vehicleservice.repository.RoleRepository;
 import com.vehicleservice.repository.UserRepository;
 import com.vehicleservice.repository.TechnicianRepository;
@@ -19,8 +20,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @org.springframework.context.annotation.Scope("singleton")
@@ -35,6 +41,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private TechnicianRepository technicianRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
     @Autowired
     @Lazy
     private PasswordEncoder passwordEncoder;
@@ -132,6 +141,11 @@ public class UserService implements UserDetailsService {
         if (userOpt.isPresent()) {
             User user = userOpt.get();
 
+            // Bookings outlive the account; drop the link so the foreign key does not block the delete
+            if (user.isCustomer()) {
+                bookingRepository.unlinkCustomer(id);
+            }
+
             // If user is a technician, delete the technician record first
             if (user.isTechnician()) {
                 Optional<Technician> technicianOpt = technicianRepository.findByUser_Id(id);
@@ -187,6 +201,34 @@ public class UserService implements UserDetailsService {
         }
     }
 
+    /// Id of the only customer with this "first last" name; empty if there is none or more than one
+    public Optional<Long> findCustomerIdByFullName(String fullName) {
+        List<Long> ids = userRepository.findCustomerIdsByFullName(fullName);
+        return ids.size() == 1 ? Optional.of(ids.get(0)) : Optional.empty();
+    }
+
+    /// Customer account ids keyed by fullNameKey("first last"); look names up with fullNameKey too. Names
+    /// shared by several customers are left out because a booking with that name cannot be attributed
+    /// to one of them
+    public Map<String, Long> getCustomerIdsByFullName() {
+        Map<String, Long> ids = new HashMap<>();
+        Set<String> ambiguous = new HashSet<>();
+        for (User customer : getUsersByRole("CUSTOMER")) {
+            String fullName = fullNameKey(customer.getFirstName() + " " + customer.getLastName());
+            if (ids.putIfAbsent(fullName, customer.getId()) != null) {
+                ambiguous.add(fullName);
+            }
+        }
+        ids.keySet().removeAll(ambiguous);
+        return ids;
+    }
+
+    /// A name as getCustomerIdsByFullName keys it: trimmed, inner whitespace collapsed, lower case, so
+    /// names match as loosely as they did under the database's case-insensitive collation
+    public static String fullNameKey(String fullName) {
+        return fullName == null ? "" : fullName.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
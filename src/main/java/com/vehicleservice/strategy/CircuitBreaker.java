@@ -0,0 +1,138 @@
+package com.vehicleservice.strategy;
+
+// Count-based circuit breaker for the calls into one strategy. The last windowSize calls are kept as
+// failed/succeeded; once at least minimumCalls are recorded and the failed share reaches the
+// threshold the circuit opens and calls are refused for openMillis. After that a few trial calls are
+// let through (half-open): if they all succeed the circuit closes, one failure opens it again.
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+
+    // Ring buffer of recent call results
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+    private long timesOpened;
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openMillis,
+            int halfOpenCalls) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.window = new boolean[this.windowSize];
+    }
+
+    // Whether a call may go ahead; every permitted call must end in onSuccess, onFailure or release
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntil) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenStarted = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenStarted >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenStarted++;
+        }
+        return true;
+    }
+
+    // A permitted call that was not made after all (e.g. the bulkhead was full)
+    synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenStarted > 0) {
+            halfOpenStarted--;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumCalls && (double) windowFailures / windowCount >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+            // Reported as half-open; the transition itself happens on the next call
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    synchronized double getFailureRate() {
+        return windowCount > 0 ? (double) windowFailures / windowCount : 0;
+    }
+
+    synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+
+    private void record(boolean failed) {
+        if (windowCount == windowSize) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % windowSize;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = System.currentTimeMillis() + openMillis;
+        timesOpened++;
+        clearWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
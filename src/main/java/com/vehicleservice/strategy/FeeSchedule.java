@@ -0,0 +1,85 @@
+package com.vehicleservice.strategy;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Immutable payment method -> fee rule table of a payment processing strategy.
+// Built once per strategy, so a fee quote is a map lookup and one multiplication
+// instead of re-parsing the payment method on every call.
+public final class FeeSchedule {
+
+    private final Map<String, FeeRule> rules;
+    private final Map<String, FeeRule> canonicalRules;
+    private final FeeRule defaultRule;
+
+    private FeeSchedule(Map<String, FeeRule> canonicalRules, FeeRule defaultRule) {
+        Map<String, FeeRule> lookup = new HashMap<>();
+        for (Map.Entry<String, FeeRule> entry : canonicalRules.entrySet()) {
+            // Both the form value ("VISA") and its normalized key, so the common case skips normalizing
+            lookup.put(entry.getKey(), entry.getValue());
+            lookup.put(StrategyDispatchTable.normalize(entry.getKey()), entry.getValue());
+        }
+        this.rules = Map.copyOf(lookup);
+        this.canonicalRules = Collections.unmodifiableMap(new LinkedHashMap<>(canonicalRules));
+        this.defaultRule = defaultRule;
+    }
+
+    // Schedule from rules keyed by payment method name; aliases map to the same rule
+    public static FeeSchedule of(Map<String, FeeRule> rules, FeeRule defaultRule) {
+        return new FeeSchedule(rules, defaultRule);
+    }
+
+    // Fee for an amount paid with the given method; a null method or amount costs nothing
+    public BigDecimal quote(BigDecimal amount, String paymentMethod) {
+        FeeRule rule = ruleFor(paymentMethod);
+        return rule != null && amount != null ? rule.apply(amount) : BigDecimal.ZERO;
+    }
+
+    // Rule for a payment method; methods without their own rule get the default rule
+    public FeeRule ruleFor(String paymentMethod) {
+        if (paymentMethod == null) {
+            return null;
+        }
+        FeeRule rule = rules.get(paymentMethod);
+        if (rule == null) {
+            rule = rules.get(StrategyDispatchTable.normalize(paymentMethod));
+        }
+        return rule != null ? rule : defaultRule;
+    }
+
+    // Rules by the payment method names they were declared with, in declaration order
+    public Map<String, FeeRule> getRules() {
+        return canonicalRules;
+    }
+
+    public FeeRule getDefaultRule() {
+        return defaultRule;
+    }
+
+    // Percentage fee with a floor: max(amount * rate, minimumFee)
+    public static final class FeeRule {
+        private final BigDecimal rate;
+        private final BigDecimal minimumFee;
+
+        public FeeRule(BigDecimal rate, BigDecimal minimumFee) {
+            this.rate = rate;
+            this.minimumFee = minimumFee;
+        }
+
+        public BigDecimal apply(BigDecimal amount) {
+            BigDecimal fee = amount.multiply(rate);
+            return fee.compareTo(minimumFee) < 0 ? minimumFee : fee;
+        }
+
+        public BigDecimal getRate() {
+            return rate;
+        }
+
+        public BigDecimal getMinimumFee() {
+            return minimumFee;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.vehicleservice.strategy;
 
 import com.vehicleservice.entity.Booking;
+import com.vehicleservice.entity.PaymentLedgerEntry;
 import java.math.BigDecimal;
+import java.util.List;
 
 // Strategy pattern interface for payment processing
 public interface PaymentProcessingStrategy {
@@ -12,6 +14,9 @@ public interface PaymentProcessingStrategy {
     // Calculate processing fees for the payment
     BigDecimal calculateProcessingFees(BigDecimal amount, String paymentMethod);
 
+    // Precomputed fee rules behind calculateProcessingFees
+    FeeSchedule getFeeSchedule();
+
     // Validate payment before processing
     PaymentValidationResult validatePayment(Booking booking, BigDecimal amount, String paymentMethod);
 
@@ -28,14 +33,22 @@ public interface PaymentProcessingStrategy {
         private final String message;
         private final BigDecimal processedAmount;
         private final BigDecimal processingFees;
+        // Ledger entries to append when the payment is recorded on the booking
+        private final List<PaymentLedgerEntry> ledgerEntries;
 
         public PaymentResult(boolean success, String transactionId, String message,
                 BigDecimal processedAmount, BigDecimal processingFees) {
+            this(success, transactionId, message, processedAmount, processingFees, List.of());
+        }
+
+        public PaymentResult(boolean success, String transactionId, String message,
+                BigDecimal processedAmount, BigDecimal processingFees, List<PaymentLedgerEntry> ledgerEntries) {
             this.success = success;
             this.transactionId = transactionId;
             this.message = message;
             this.processedAmount = processedAmount;
             this.processingFees = processingFees;
+            this.ledgerEntries = List.copyOf(ledgerEntries);
         }
 
         // Getters
@@ -58,6 +71,10 @@ public interface PaymentProcessingStrategy {
         public BigDecimal getProcessingFees() {
             return processingFees;
         }
+
+        public List<PaymentLedgerEntry> getLedgerEntries() {
+            return ledgerEntries;
+        }
     }
 
     // Payment Validation Result class
@@ -1,19 +1,94 @@
 package com.vehicleservice.strategy;
 
 import com.vehicleservice.entity.Booking;
+import com.vehicleservice.util.DecisionTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 // Payment Processing Strategy Manager - Manages payment processing strategies
+//
+// Payments go through a StrategyGuard per strategy (bulkhead, time limit, circuit breaker), so a slow
+// or failing card backend only uses up its own share of threads and cannot hold up cash payments.
+// Limits can be overridden per strategy with a ".card" / ".cash" suffix on the property name.
 @Component
 @org.springframework.context.annotation.Scope("singleton")
 public class PaymentProcessingStrategyManager {
 
+    // Payment methods accepted by the payment forms, resolved when the dispatch table is built
+    private static final List<String> KNOWN_PAYMENT_METHODS = List.of(
+            "CASH", "CARD", "VISA", "MASTERCARD", "AMEX", "CREDIT_CARD", "DEBIT_CARD");
+
+    // Upper bound on quotes priced by one batch call
+    private static final int MAX_QUOTES_PER_BATCH = 100;
+
+    @Autowired
+    private volatile List<PaymentProcessingStrategy> paymentStrategies;
+
+    @Autowired
+    private DecisionTrace decisionTrace;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
-    private List<PaymentProcessingStrategy> paymentStrategies;
+    private Environment environment;
+
+    // Concurrent payment calls per strategy
+    @Value("${payment.bulkhead.max-concurrent:32}")
+    private int defaultMaxConcurrent;
+
+    // How long a payment may wait for a place in its strategy's bulkhead
+    @Value("${payment.bulkhead.max-wait-ms:5000}")
+    private long defaultMaxWaitMs;
+
+    // How long a payment call may take before the caller gives up on it
+    @Value("${payment.time-limit-ms:10000}")
+    private long defaultTimeLimitMs;
+
+    // Local fault injection; when disabled, latency and failures cannot be injected at all
+    @Value("${payment.fault-injection.enabled:false}")
+    private boolean faultInjectionEnabled;
+
+    // Normalized payment method -> strategy, replaced whenever a strategy is registered
+    private volatile StrategyDispatchTable<PaymentProcessingStrategy> dispatchTable;
+
+    // Strategy payment method ("CARD", "CASH") -> the guard its calls go through
+    private final ConcurrentHashMap<String, StrategyGuard> guards = new ConcurrentHashMap<>();
+
+    // Guarded calls run on virtual threads, so a call left running after its time limit costs no
+    // platform thread
+    private final ExecutorService callers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("payment-call-", 0).factory());
+
+    // Build the payment method dispatch table from the injected strategies
+    @PostConstruct
+    void buildDispatchTable() {
+        // Unsupported payment methods resolve to null
+        dispatchTable = new StrategyDispatchTable<>(paymentStrategies, PaymentProcessingStrategy::appliesTo,
+                null, KNOWN_PAYMENT_METHODS);
+    }
+
+    // Register an additional payment processing strategy and rebuild the dispatch table
+    public synchronized void registerStrategy(PaymentProcessingStrategy strategy) {
+        paymentStrategies = StrategyDispatchTable.withStrategy(paymentStrategies, strategy);
+        buildDispatchTable();
+    }
 
     // Process a payment for a booking using the appropriate strategy
     public PaymentProcessingStrategy.PaymentResult processPayment(Booking booking, BigDecimal amount,
@@ -26,7 +101,75 @@ public class PaymentProcessingStrategyManager {
                     BigDecimal.ZERO, BigDecimal.ZERO);
         }
 
-        return strategy.processPayment(booking, amount, paymentMethod);
+        return guardFor(strategy).call(() -> strategy.processPayment(booking, amount, paymentMethod));
+    }
+
+    /// Longest processPayment can block: waiting for the bulkhead plus the call's time limit
+    public long getMaxCallMillis() {
+        long max = 0;
+        for (PaymentProcessingStrategy strategy : paymentStrategies) {
+            max = Math.max(max, guardFor(strategy).getMaxCallMillis());
+        }
+        return max;
+    }
+
+    /// Bulkhead, circuit breaker and fault injection state per strategy
+    public Map<String, Object> getResilienceStats() {
+        Map<String, Object> strategies = new TreeMap<>();
+        for (PaymentProcessingStrategy strategy : paymentStrategies) {
+            strategies.put(strategy.getPaymentMethod(), guardFor(strategy).getStats());
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("faultInjectionEnabled", faultInjectionEnabled);
+        stats.put("strategies", strategies);
+        return stats;
+    }
+
+    /// Inject latency and a failure rate in front of one strategy's calls (0 and 0 to stop)
+    public void injectFaults(String paymentMethod, long latencyMillis, double failureRate) {
+        if (!faultInjectionEnabled) {
+            throw new IllegalStateException("Fault injection is disabled (payment.fault-injection.enabled)");
+        }
+        PaymentProcessingStrategy strategy = selectStrategy(paymentMethod);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unsupported payment method: " + paymentMethod);
+        }
+        guardFor(strategy).injectFaults(latencyMillis, failureRate);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    private StrategyGuard guardFor(PaymentProcessingStrategy strategy) {
+        return guards.computeIfAbsent(strategy.getPaymentMethod(), this::createGuard);
+    }
+
+    private StrategyGuard createGuard(String strategyMethod) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                setting("payment.circuit-breaker.window-size", strategyMethod, Integer.class, 20),
+                setting("payment.circuit-breaker.minimum-calls", strategyMethod, Integer.class, 10),
+                setting("payment.circuit-breaker.failure-rate-threshold", strategyMethod, Double.class, 0.5),
+                setting("payment.circuit-breaker.open-ms", strategyMethod, Long.class, 30000L),
+                setting("payment.circuit-breaker.half-open-calls", strategyMethod, Integer.class, 3));
+        StrategyGuard guard = new StrategyGuard(strategyMethod,
+                setting("payment.bulkhead.max-concurrent", strategyMethod, Integer.class, defaultMaxConcurrent),
+                setting("payment.bulkhead.max-wait-ms", strategyMethod, Long.class, defaultMaxWaitMs),
+                setting("payment.time-limit-ms", strategyMethod, Long.class, defaultTimeLimitMs),
+                setting("payment.circuit-breaker.slow-call-ms", strategyMethod, Long.class, 5000L),
+                circuitBreaker, callers, meterRegistry);
+        if (faultInjectionEnabled) {
+            guard.injectFaults(setting("payment.fault-injection.latency-ms", strategyMethod, Long.class, 0L),
+                    setting("payment.fault-injection.failure-rate", strategyMethod, Double.class, 0.0));
+        }
+        return guard;
+    }
+
+    // A setting for one strategy: "<name>.<method>" if present, else "<name>", else the default
+    private <T> T setting(String name, String strategyMethod, Class<T> type, T defaultValue) {
+        T value = environment.getProperty(name + "." + strategyMethod.toLowerCase(Locale.ROOT), type);
+        return value != null ? value : environment.getProperty(name, type, defaultValue);
     }
 
     // Calculate processing fees for a payment using the appropriate strategy
@@ -40,6 +183,45 @@ public class PaymentProcessingStrategyManager {
         return strategy.calculateProcessingFees(amount, paymentMethod);
     }
 
+    /**
+     * Quote processing fees for many (amount, payment method) pairs in one call.
+     * Pairs are matched by position; a single amount is quoted for every method,
+     * and without methods every known payment method is quoted.
+     *
+     * @param amounts        The amounts
+     * @param paymentMethods The payment methods, or null/empty for all known methods
+     * @return One quote per pair, in request order
+     */
+    public List<FeeQuote> quoteProcessingFees(List<BigDecimal> amounts, List<String> paymentMethods) {
+        if (amounts == null || amounts.isEmpty()) {
+            throw new IllegalArgumentException("At least one amount is required");
+        }
+        List<String> methods = paymentMethods == null || paymentMethods.isEmpty() ? KNOWN_PAYMENT_METHODS
+                : paymentMethods;
+        if (amounts.size() != 1 && amounts.size() != methods.size()) {
+            throw new IllegalArgumentException("Expected one amount or one amount per payment method, got "
+                    + amounts.size() + " amounts for " + methods.size() + " payment methods");
+        }
+        if (methods.size() > MAX_QUOTES_PER_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_QUOTES_PER_BATCH + " quotes per request");
+        }
+
+        List<FeeQuote> quotes = new ArrayList<>(methods.size());
+        for (int i = 0; i < methods.size(); i++) {
+            BigDecimal amount = amounts.get(amounts.size() == 1 ? 0 : i);
+            if (amount == null || amount.signum() < 0) {
+                throw new IllegalArgumentException("Invalid amount: " + amount);
+            }
+            String paymentMethod = methods.get(i);
+            PaymentProcessingStrategy strategy = selectStrategy(paymentMethod);
+            BigDecimal processingFees = strategy != null
+                    ? strategy.getFeeSchedule().quote(amount, paymentMethod)
+                    : BigDecimal.ZERO;
+            quotes.add(new FeeQuote(paymentMethod, strategy != null, amount, processingFees));
+        }
+        return quotes;
+    }
+
     /**
      * Validate a payment before processing using the appropriate strategy
      * 
@@ -93,18 +275,12 @@ public class PaymentProcessingStrategyManager {
      * @return The appropriate payment processing strategy
      */
     private PaymentProcessingStrategy selectStrategy(String paymentMethod) {
-        if (paymentMethod == null || paymentMethod.trim().isEmpty()) {
-            return null;
-        }
-
-        // Find the first strategy that applies to this payment method
-        for (PaymentProcessingStrategy strategy : paymentStrategies) {
-            if (strategy.appliesTo(paymentMethod)) {
-                return strategy;
-            }
+        PaymentProcessingStrategy strategy = dispatchTable.resolve(paymentMethod);
+        if (decisionTrace.isActive()) {
+            decisionTrace.record("payment-strategy", paymentMethod,
+                    strategy != null ? strategy.getClass().getSimpleName() : "unsupported");
         }
-
-        return null;
+        return strategy;
     }
 
     /**
@@ -138,6 +314,44 @@ public class PaymentProcessingStrategyManager {
                 .toList();
     }
 
+    /**
+     * Fee quote for one (amount, payment method) pair
+     */
+    public static class FeeQuote {
+        private final String paymentMethod;
+        private final boolean supported;
+        private final BigDecimal amount;
+        private final BigDecimal processingFees;
+
+        public FeeQuote(String paymentMethod, boolean supported, BigDecimal amount, BigDecimal processingFees) {
+            this.paymentMethod = paymentMethod;
+            this.supported = supported;
+            this.amount = amount;
+            this.processingFees = processingFees;
+        }
+
+        // Getters
+        public String getPaymentMethod() {
+            return paymentMethod;
+        }
+
+        public boolean isSupported() {
+            return supported;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public BigDecimal getProcessingFees() {
+            return processingFees;
+        }
+
+        public BigDecimal getTotalAmount() {
+            return amount.add(processingFees);
+        }
+    }
+
     /**
      * Payment Processing Info class to hold payment processing information
      */
@@ -0,0 +1,22 @@
+package com.vehicleservice.strategy;
+
+// Thrown by PaymentProcessingStrategyManager when a payment could not be processed because its
+// strategy is protected (circuit open, bulkhead full) or did not answer in time. No payment outcome
+// exists in these cases, so the payment can safely be tried again.
+public class PaymentUnavailableException extends IllegalStateException {
+
+    public enum Reason {
+        CIRCUIT_OPEN, BULKHEAD_FULL, TIMED_OUT
+    }
+
+    private final Reason reason;
+
+    public PaymentUnavailableException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
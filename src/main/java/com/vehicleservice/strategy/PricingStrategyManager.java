@@ -1,5 +1,7 @@
 package com.vehicleservice.strategy;
 
+import com.vehicleservice.util.DecisionTrace;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -11,8 +13,34 @@ import java.util.List;
 @org.springframework.context.annotation.Scope("singleton")
 public class PricingStrategyManager {
 
+    // Service types offered by the booking forms, resolved when the dispatch table is built
+    private static final List<String> KNOWN_SERVICE_TYPES = List.of(
+            "Oil Change", "Tire Service", "AC Service", "Electrical Service", "General Maintenance",
+            "Brake Service", "Transmission Service", "Engine Inspection", "Engine Repair",
+            "Safety Inspection", "Emissions Test", "Major Overhaul", "Spark Plug Replacement",
+            "Air Filter Replacement");
+
+    @Autowired
+    private volatile List<PricingStrategy> pricingStrategies;
+
     @Autowired
-    private List<PricingStrategy> pricingStrategies;
+    private DecisionTrace decisionTrace;
+
+    // Normalized service type -> strategy, replaced whenever a strategy is registered
+    private volatile StrategyDispatchTable<PricingStrategy> dispatchTable;
+
+    // Build the service type dispatch table from the injected strategies
+    @PostConstruct
+    void buildDispatchTable() {
+        dispatchTable = new StrategyDispatchTable<>(pricingStrategies, PricingStrategy::appliesTo,
+                pricingStrategies.isEmpty() ? null : pricingStrategies.get(0), KNOWN_SERVICE_TYPES);
+    }
+
+    // Register an additional pricing strategy and rebuild the dispatch table
+    public synchronized void registerStrategy(PricingStrategy strategy) {
+        pricingStrategies = StrategyDispatchTable.withStrategy(pricingStrategies, strategy);
+        buildDispatchTable();
+    }
 
     // Calculate base price using appropriate strategy
     public BigDecimal calculateBasePrice(String serviceType) {
@@ -54,28 +82,13 @@ public class PricingStrategyManager {
 
     // Select appropriate pricing strategy for service type
     private PricingStrategy selectStrategy(String serviceType) {
-        System.out.println("Selecting strategy for service type: " + serviceType);
-        System.out.println("Available strategies: " + pricingStrategies.size());
-
-        if (serviceType == null || serviceType.trim().isEmpty()) {
-            // Return first available strategy as default
-            System.out.println("Service type is null or empty, returning first strategy");
-            return pricingStrategies.isEmpty() ? null : pricingStrategies.get(0);
+        // Empty or unmatched service types get the first available strategy as default
+        PricingStrategy strategy = dispatchTable.resolve(serviceType);
+        if (decisionTrace.isActive()) {
+            decisionTrace.record("pricing-strategy", serviceType,
+                    strategy != null ? strategy.getClass().getSimpleName() : "none");
         }
-
-        // Find first strategy that applies to service type
-        for (PricingStrategy strategy : pricingStrategies) {
-            System.out.println(
-                    "Checking strategy: " + strategy.getClass().getSimpleName() + " for service: " + serviceType);
-            if (strategy.appliesTo(serviceType)) {
-                System.out.println("Strategy " + strategy.getClass().getSimpleName() + " applies to " + serviceType);
-                return strategy;
-            }
-        }
-
-        // Return first available strategy if no specific match
-        System.out.println("No specific strategy found, returning first available strategy");
-        return pricingStrategies.isEmpty() ? null : pricingStrategies.get(0);
+        return strategy;
     }
 
     // Get all available pricing strategies
@@ -10,6 +10,9 @@ public interface SlotGenerationStrategy {
     // Generate time slots for a specific date and service type
     List<TimeSlot> generateSlots(LocalDate date, String serviceType);
 
+    // Get the precomputed, immutable slot grid that applies on a specific date
+    SlotTemplate getSlotTemplate(LocalDate date);
+
     // Get the slot duration in minutes for this strategy
     int getSlotDuration(String serviceType);
 
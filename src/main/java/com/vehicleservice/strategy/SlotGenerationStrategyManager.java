@@ -1,6 +1,8 @@
 package com.vehicleservice.strategy;
 
 import com.vehicleservice.service.BookingService.TimeSlot;
+import com.vehicleservice.util.DecisionTrace;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -21,8 +23,41 @@ import java.util.List;
 @org.springframework.context.annotation.Scope("singleton")
 public class SlotGenerationStrategyManager {
 
+    // Service types offered by the booking forms, resolved when the dispatch table is built
+    private static final List<String> KNOWN_SERVICE_TYPES = List.of(
+            "Oil Change", "Tire Service", "AC Service", "Electrical Service", "General Maintenance",
+            "Brake Service", "Transmission Service", "Engine Inspection", "Engine Repair",
+            "Safety Inspection", "Emissions Test", "Major Overhaul", "Spark Plug Replacement",
+            "Air Filter Replacement");
+
+    @Autowired
+    private volatile List<SlotGenerationStrategy> slotStrategies;
+
     @Autowired
-    private List<SlotGenerationStrategy> slotStrategies;
+    private DecisionTrace decisionTrace;
+
+    // Normalized service type -> strategy, replaced whenever a strategy is registered
+    private volatile StrategyDispatchTable<SlotGenerationStrategy> dispatchTable;
+
+    /**
+     * Build the service type dispatch table from the injected strategies
+     */
+    @PostConstruct
+    void buildDispatchTable() {
+        dispatchTable = new StrategyDispatchTable<>(slotStrategies, SlotGenerationStrategy::appliesTo,
+                slotStrategies.isEmpty() ? null : slotStrategies.get(0), KNOWN_SERVICE_TYPES);
+    }
+
+    /**
+     * Register an additional slot generation strategy and rebuild the dispatch
+     * table
+     * 
+     * @param strategy The strategy to register
+     */
+    public synchronized void registerStrategy(SlotGenerationStrategy strategy) {
+        slotStrategies = StrategyDispatchTable.withStrategy(slotStrategies, strategy);
+        buildDispatchTable();
+    }
 
     /**
      * Generate time slots for a specific date and service type using the
@@ -37,6 +72,18 @@ public class SlotGenerationStrategyManager {
         return strategy.generateSlots(date, serviceType);
     }
 
+    /**
+     * Get the precomputed slot template for a specific date and service type
+     * 
+     * @param date        The date for which to get the slot grid
+     * @param serviceType The type of service
+     * @return Immutable slot template shared by every request for that grid
+     */
+    public SlotTemplate getSlotTemplate(LocalDate date, String serviceType) {
+        SlotGenerationStrategy strategy = selectStrategy(serviceType);
+        return strategy.getSlotTemplate(date);
+    }
+
     /**
      * Get the slot duration for a specific service type using the appropriate
      * strategy
@@ -83,20 +130,13 @@ public class SlotGenerationStrategyManager {
      * @return The appropriate slot generation strategy
      */
     private SlotGenerationStrategy selectStrategy(String serviceType) {
-        if (serviceType == null || serviceType.trim().isEmpty()) {
-            // Return the first available strategy as default
-            return slotStrategies.isEmpty() ? null : slotStrategies.get(0);
+        // Empty or unmatched service types get the first available strategy as default
+        SlotGenerationStrategy strategy = dispatchTable.resolve(serviceType);
+        if (decisionTrace.isActive()) {
+            decisionTrace.record("slot-strategy", serviceType,
+                    strategy != null ? strategy.getClass().getSimpleName() : "none");
         }
-
-        // Find the first strategy that applies to this service type
-        for (SlotGenerationStrategy strategy : slotStrategies) {
-            if (strategy.appliesTo(serviceType)) {
-                return strategy;
-            }
-        }
-
-        // If no specific strategy applies, return the first available strategy
-        return slotStrategies.isEmpty() ? null : slotStrategies.get(0);
+        return strategy;
     }
 
     /**
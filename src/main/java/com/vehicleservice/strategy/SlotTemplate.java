@@ -0,0 +1,110 @@
+package com.vehicleservice.strategy;
+
+import com.vehicleservice.service.BookingService.TimeSlot;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable precomputed slot grid for one slot generation strategy and calendar variant
+public final class SlotTemplate {
+
+    private final String serviceCategory;
+    private final int maxBookingsPerSlot;
+    private final LocalTime[] startTimes;
+    private final LocalTime[] endTimes;
+    private final int[] startMinutes;
+    private final int[] endMinutes;
+
+    private SlotTemplate(String serviceCategory, int maxBookingsPerSlot, List<LocalTime> starts,
+            int durationMinutes) {
+        this.serviceCategory = serviceCategory;
+        this.maxBookingsPerSlot = maxBookingsPerSlot;
+        this.startTimes = new LocalTime[starts.size()];
+        this.endTimes = new LocalTime[starts.size()];
+        this.startMinutes = new int[starts.size()];
+        this.endMinutes = new int[starts.size()];
+
+        for (int i = 0; i < starts.size(); i++) {
+            LocalTime start = starts.get(i);
+            startTimes[i] = start;
+            endTimes[i] = start.plusMinutes(durationMinutes);
+            startMinutes[i] = start.getHour() * 60 + start.getMinute();
+            endMinutes[i] = startMinutes[i] + durationMinutes;
+        }
+    }
+
+    // Build a grid of slots of the given duration, starting every stepMinutes, that fit within working hours
+    public static SlotTemplate build(String serviceCategory, LocalTime workStart, LocalTime workEnd,
+            int durationMinutes, int stepMinutes, int maxBookingsPerSlot) {
+        List<LocalTime> starts = new ArrayList<>();
+        LocalTime currentTime = workStart;
+
+        while (currentTime.isBefore(workEnd)) {
+            LocalTime endTime = currentTime.plusMinutes(durationMinutes);
+
+            // Don't create slots that would go beyond work hours
+            if (endTime.isAfter(workEnd)) {
+                break;
+            }
+
+            starts.add(currentTime);
+            currentTime = currentTime.plusMinutes(stepMinutes);
+        }
+
+        return new SlotTemplate(serviceCategory, maxBookingsPerSlot, starts, durationMinutes);
+    }
+
+    // Materialize the template as mutable TimeSlot objects with full capacity for a date
+    public List<TimeSlot> toTimeSlots(LocalDate date) {
+        List<TimeSlot> slots = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            TimeSlot slot = new TimeSlot(date, startTimes[i], endTimes[i]);
+            slot.setAvailable(true);
+            slot.setRemainingSlots(maxBookingsPerSlot);
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    // Index of the slot whose [start, end) contains the given minute of day, or -1 if none does
+    public int indexOfSlotContaining(int minuteOfDay) {
+        for (int i = 0; i < startMinutes.length; i++) {
+            if (minuteOfDay >= startMinutes[i] && minuteOfDay < endMinutes[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return startTimes.length;
+    }
+
+    public String getServiceCategory() {
+        return serviceCategory;
+    }
+
+    public int getMaxBookingsPerSlot() {
+        return maxBookingsPerSlot;
+    }
+
+    public LocalTime getStartTime(int index) {
+        return startTimes[index];
+    }
+
+    public LocalTime getEndTime(int index) {
+        return endTimes[index];
+    }
+
+    // Slot start as minutes since midnight
+    public int getStartMinute(int index) {
+        return startMinutes[index];
+    }
+
+    // Slot end as minutes since midnight (may be 1440 for a slot ending at midnight)
+    public int getEndMinute(int index) {
+        return endMinutes[index];
+    }
+}
@@ -0,0 +1,81 @@
+package com.vehicleservice.strategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+// Normalized key -> strategy lookup table used by the strategy managers.
+// Known keys are resolved when the table is built; unknown keys fall back to the
+// strategies' own appliesTo matching once and the result is remembered.
+final class StrategyDispatchTable<S> {
+
+    // Upper bound on remembered unknown keys (keys come from user input)
+    private static final int MAX_LEARNED_KEYS = 1024;
+
+    private final List<S> strategies;
+    private final BiPredicate<S, String> matcher;
+    private final S fallback;
+
+    // Optional.empty() records a key that no strategy applies to
+    private final Map<String, Optional<S>> table = new ConcurrentHashMap<>();
+
+    StrategyDispatchTable(List<S> strategies, BiPredicate<S, String> matcher, S fallback,
+            Collection<String> knownKeys) {
+        this.strategies = List.copyOf(strategies);
+        this.matcher = matcher;
+        this.fallback = fallback;
+
+        for (String key : knownKeys) {
+            String normalizedKey = normalize(key);
+            table.put(normalizedKey, Optional.ofNullable(match(normalizedKey)));
+        }
+    }
+
+    // Resolve the strategy for a key; null or blank keys and unmatched keys get the fallback
+    S resolve(String key) {
+        if (key == null || key.isBlank()) {
+            return fallback;
+        }
+
+        String normalizedKey = normalize(key);
+        Optional<S> resolved = table.get(normalizedKey);
+        if (resolved == null) {
+            resolved = Optional.ofNullable(match(normalizedKey));
+            if (table.size() < MAX_LEARNED_KEYS) {
+                table.putIfAbsent(normalizedKey, resolved);
+            }
+        }
+        return resolved.orElse(fallback);
+    }
+
+    // Strategies the table was built from, in registration order
+    List<S> getStrategies() {
+        return strategies;
+    }
+
+    // Copy of the strategy list with one more strategy appended
+    static <S> List<S> withStrategy(List<S> strategies, S strategy) {
+        List<S> updated = new ArrayList<>(strategies);
+        updated.add(strategy);
+        return updated;
+    }
+
+    // appliesTo implementations ignore case and surrounding whitespace, so keys are normalized the same way
+    static String normalize(String key) {
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private S match(String normalizedKey) {
+        for (S strategy : strategies) {
+            if (matcher.test(strategy, normalizedKey)) {
+                return strategy;
+            }
+        }
+        return null;
+    }
+}
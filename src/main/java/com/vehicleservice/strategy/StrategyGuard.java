@@ -0,0 +1,197 @@
+package com.vehicleservice.strategy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Protection around the calls into one strategy: a circuit breaker, a bulkhead (bounded concurrent
+// calls, bounded wait for a free place) and a time limit. Calls run on their own thread so the caller
+// stops waiting at the time limit; the bulkhead place is held until the call really ends, so a strategy
+// that ignores interruption still cannot take more than its share. Local fault injection adds latency
+// or failures in front of the strategy.
+final class StrategyGuard {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitMillis;
+    private final long timeLimitMillis;
+    private final long slowCallNanos;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService callers;
+
+    // Injected before every call when fault injection is enabled
+    private volatile long injectedLatencyMillis;
+    private volatile double injectedFailureRate;
+
+    private final Timer succeeded;
+    private final Timer declined;
+    private final Timer failed;
+    private final Timer timedOut;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+
+    StrategyGuard(String name, int maxConcurrent, long maxWaitMillis, long timeLimitMillis, long slowCallMillis,
+            CircuitBreaker circuitBreaker, ExecutorService callers, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxWaitMillis = maxWaitMillis;
+        this.timeLimitMillis = timeLimitMillis;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.bulkhead = new Semaphore(this.maxConcurrent);
+        this.circuitBreaker = circuitBreaker;
+        this.callers = callers;
+
+        succeeded = callTimer(meterRegistry, "success");
+        declined = callTimer(meterRegistry, "declined");
+        failed = callTimer(meterRegistry, "error");
+        timedOut = callTimer(meterRegistry, "timeout");
+        circuitOpenRejections = rejectionCounter(meterRegistry, "circuit_open");
+        bulkheadFullRejections = rejectionCounter(meterRegistry, "bulkhead_full");
+        Gauge.builder("payment.strategy.bulkhead.in_use", bulkhead, permits -> this.maxConcurrent
+                - permits.availablePermits())
+                .tag("strategy", name).register(meterRegistry);
+        Gauge.builder("payment.strategy.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .tag("strategy", name).description("0 closed, 1 half-open, 2 open").register(meterRegistry);
+    }
+
+    // Run a payment call through the guard; declined payments come back as results, not failures
+    PaymentProcessingStrategy.PaymentResult call(Callable<PaymentProcessingStrategy.PaymentResult> payment) {
+        if (!circuitBreaker.tryAcquire()) {
+            circuitOpenRejections.increment();
+            throw new PaymentUnavailableException(PaymentUnavailableException.Reason.CIRCUIT_OPEN,
+                    name + " payments are temporarily unavailable, try again shortly");
+        }
+
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            circuitBreaker.release();
+            bulkheadFullRejections.increment();
+            throw new PaymentUnavailableException(PaymentUnavailableException.Reason.BULKHEAD_FULL,
+                    "Too many " + name + " payments in progress, try again shortly");
+        }
+
+        long start = System.nanoTime();
+        Future<PaymentProcessingStrategy.PaymentResult> future;
+        try {
+            future = callers.submit(() -> {
+                try {
+                    injectFaults();
+                    return payment.call();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            circuitBreaker.release();
+            throw new PaymentUnavailableException(PaymentUnavailableException.Reason.BULKHEAD_FULL,
+                    name + " payments are shutting down");
+        }
+
+        try {
+            PaymentProcessingStrategy.PaymentResult result = future.get(timeLimitMillis, TimeUnit.MILLISECONDS);
+            long elapsed = System.nanoTime() - start;
+            // A slow answer counts against the circuit like a failure
+            if (elapsed >= slowCallNanos) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            (result.isSuccess() ? succeeded : declined).record(elapsed, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            timedOut.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new PaymentUnavailableException(PaymentUnavailableException.Reason.TIMED_OUT,
+                    name + " payment timed out after " + timeLimitMillis + " ms");
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause
+                    : new IllegalStateException(name + " payment failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            circuitBreaker.release();
+            Thread.currentThread().interrupt();
+            throw new PaymentUnavailableException(PaymentUnavailableException.Reason.TIMED_OUT,
+                    name + " payment was interrupted");
+        }
+    }
+
+    void injectFaults(long latencyMillis, double failureRate) {
+        if (latencyMillis < 0 || failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Injected latency must be >= 0 and failure rate between 0 and 1");
+        }
+        injectedLatencyMillis = latencyMillis;
+        injectedFailureRate = failureRate;
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuitState", circuitBreaker.getState().name());
+        stats.put("failureRate", Math.round(circuitBreaker.getFailureRate() * 1000) / 1000.0);
+        stats.put("timesOpened", circuitBreaker.getTimesOpened());
+        stats.put("inUse", maxConcurrent - bulkhead.availablePermits());
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("waiting", bulkhead.getQueueLength());
+        stats.put("succeeded", succeeded.count());
+        stats.put("declined", declined.count());
+        stats.put("failed", failed.count());
+        stats.put("timedOut", timedOut.count());
+        stats.put("rejectedCircuitOpen", (long) circuitOpenRejections.count());
+        stats.put("rejectedBulkheadFull", (long) bulkheadFullRejections.count());
+        stats.put("injectedLatencyMs", injectedLatencyMillis);
+        stats.put("injectedFailureRate", injectedFailureRate);
+        return stats;
+    }
+
+    // Longest a caller can wait: a place in the bulkhead, then the call itself
+    long getMaxCallMillis() {
+        return maxWaitMillis + timeLimitMillis;
+    }
+
+    private void injectFaults() throws InterruptedException {
+        long latency = injectedLatencyMillis;
+        if (latency > 0) {
+            Thread.sleep(latency);
+        }
+        double failureRate = injectedFailureRate;
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Injected " + name + " payment fault");
+        }
+    }
+
+    private Timer callTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("payment.strategy.calls")
+                .tag("strategy", name).tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("payment.strategy.rejections")
+                .tag("strategy", name).tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
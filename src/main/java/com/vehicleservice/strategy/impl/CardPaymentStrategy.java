@@ -1,10 +1,17 @@
 package com.vehicleservice.strategy.impl;
 
 import com.vehicleservice.entity.Booking;
+import com.vehicleservice.entity.PaymentLedgerEntry;
+import com.vehicleservice.strategy.FeeSchedule;
 import com.vehicleservice.strategy.PaymentProcessingStrategy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 // Strategy pattern implementation for card payment processing
@@ -32,6 +39,12 @@ public class CardPaymentStrategy implements PaymentProcessingStrategy {
                                                                                        // cards
     private static final BigDecimal DEBIT_CARD_MINIMUM_FEE = new BigDecimal("20.00"); // Minimum 20 LKR for debit cards
 
+    // Fee rule per card type; unknown card types are charged Visa rates
+    private static final FeeSchedule FEE_SCHEDULE = buildFeeSchedule();
+
+    @Autowired
+    private PaymentGatewaySimulator paymentGateway;
+
     @Override
     public PaymentResult processPayment(Booking booking, BigDecimal amount, String paymentMethod) {
         // Validate payment first
@@ -41,9 +54,8 @@ public class CardPaymentStrategy implements PaymentProcessingStrategy {
                     BigDecimal.ZERO, BigDecimal.ZERO);
         }
 
-        // Simulate card payment processing (in real implementation, integrate with
-        // payment gateway)
-        boolean paymentSuccessful = simulateCardPaymentProcessing(booking, amount);
+        // Authorize the charge with the payment gateway
+        boolean paymentSuccessful = paymentGateway.authorize(paymentMethod, amount);
 
         if (!paymentSuccessful) {
             return new PaymentResult(false, null,
@@ -58,53 +70,26 @@ public class CardPaymentStrategy implements PaymentProcessingStrategy {
         // Update booking payment status
         updateBookingPaymentStatus(booking, amount);
 
+        // Charge and the provider's fee for the ledger
+        List<PaymentLedgerEntry> ledgerEntries = new ArrayList<>(2);
+        ledgerEntries.add(PaymentLedgerEntry.charge(booking, paymentMethod, amount, transactionId));
+        if (processingFees.signum() > 0) {
+            ledgerEntries.add(PaymentLedgerEntry.fee(booking, paymentMethod, processingFees, transactionId));
+        }
+
         return new PaymentResult(true, transactionId,
                 "Card payment processed successfully",
-                amount, processingFees);
+                amount, processingFees, ledgerEntries);
     }
 
     @Override
     public BigDecimal calculateProcessingFees(BigDecimal amount, String paymentMethod) {
-        if (paymentMethod == null) {
-            return BigDecimal.ZERO;
-        }
-
-        String upperPaymentMethod = paymentMethod.toUpperCase().trim();
-        BigDecimal feeRate;
-        BigDecimal minimumFee;
-
-        // Determine fee rate and minimum fee based on card type
-        switch (upperPaymentMethod) {
-            case "VISA":
-                feeRate = VISA_PROCESSING_FEE_RATE;
-                minimumFee = VISA_MINIMUM_FEE;
-                break;
-            case "MASTERCARD":
-                feeRate = MASTERCARD_PROCESSING_FEE_RATE;
-                minimumFee = MASTERCARD_MINIMUM_FEE;
-                break;
-            case "AMEX":
-            case "AMERICAN_EXPRESS":
-                feeRate = AMEX_PROCESSING_FEE_RATE;
-                minimumFee = AMEX_MINIMUM_FEE;
-                break;
-            case "CREDIT_CARD":
-                feeRate = CREDIT_CARD_PROCESSING_FEE_RATE;
-                minimumFee = CREDIT_CARD_MINIMUM_FEE;
-                break;
-            case "DEBIT_CARD":
-                feeRate = DEBIT_CARD_PROCESSING_FEE_RATE;
-                minimumFee = DEBIT_CARD_MINIMUM_FEE;
-                break;
-            default:
-                // Default to Visa rates for unknown card types
-                feeRate = VISA_PROCESSING_FEE_RATE;
-                minimumFee = VISA_MINIMUM_FEE;
-                break;
-        }
+        return FEE_SCHEDULE.quote(amount, paymentMethod);
+    }
 
-        BigDecimal calculatedFee = amount.multiply(feeRate);
-        return calculatedFee.compareTo(minimumFee) < 0 ? minimumFee : calculatedFee;
+    @Override
+    public FeeSchedule getFeeSchedule() {
+        return FEE_SCHEDULE;
     }
 
     @Override
@@ -160,22 +145,6 @@ public class CardPaymentStrategy implements PaymentProcessingStrategy {
                 upperPaymentMethod.equals("DEBIT_CARD");
     }
 
-    /**
-     * Simulate card payment processing (in real implementation, integrate with
-     * payment gateway)
-     */
-    private boolean simulateCardPaymentProcessing(Booking booking, BigDecimal amount) {
-        // Simulate processing delay
-        try {
-            Thread.sleep(1000); // 1 second delay
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        // Simulate 95% success rate
-        return Math.random() > 0.05;
-    }
-
     /**
      * Validate card payment method
      */
@@ -201,36 +170,9 @@ public class CardPaymentStrategy implements PaymentProcessingStrategy {
         }
 
         String upperPaymentMethod = paymentMethod.toUpperCase().trim();
-        BigDecimal feeRate;
-        BigDecimal minimumFee;
-
-        switch (upperPaymentMethod) {
-            case "VISA":
-                feeRate = VISA_PROCESSING_FEE_RATE;
-                minimumFee = VISA_MINIMUM_FEE;
-                break;
-            case "MASTERCARD":
-                feeRate = MASTERCARD_PROCESSING_FEE_RATE;
-                minimumFee = MASTERCARD_MINIMUM_FEE;
-                break;
-            case "AMEX":
-            case "AMERICAN_EXPRESS":
-                feeRate = AMEX_PROCESSING_FEE_RATE;
-                minimumFee = AMEX_MINIMUM_FEE;
-                break;
-            case "CREDIT_CARD":
-                feeRate = CREDIT_CARD_PROCESSING_FEE_RATE;
-                minimumFee = CREDIT_CARD_MINIMUM_FEE;
-                break;
-            case "DEBIT_CARD":
-                feeRate = DEBIT_CARD_PROCESSING_FEE_RATE;
-                minimumFee = DEBIT_CARD_MINIMUM_FEE;
-                break;
-            default:
-                feeRate = VISA_PROCESSING_FEE_RATE;
-                minimumFee = VISA_MINIMUM_FEE;
-                break;
-        }
+        FeeSchedule.FeeRule rule = FEE_SCHEDULE.ruleFor(upperPaymentMethod);
+        BigDecimal feeRate = rule.getRate();
+        BigDecimal minimumFee = rule.getMinimumFee();
 
         return String.format("%s: %.1f%% fee (minimum %s LKR)",
                 upperPaymentMethod,
@@ -238,6 +180,18 @@ public class CardPaymentStrategy implements PaymentProcessingStrategy {
                 minimumFee);
     }
 
+    private static FeeSchedule buildFeeSchedule() {
+        Map<String, FeeSchedule.FeeRule> rules = new LinkedHashMap<>();
+        rules.put("VISA", new FeeSchedule.FeeRule(VISA_PROCESSING_FEE_RATE, VISA_MINIMUM_FEE));
+        rules.put("MASTERCARD", new FeeSchedule.FeeRule(MASTERCARD_PROCESSING_FEE_RATE, MASTERCARD_MINIMUM_FEE));
+        FeeSchedule.FeeRule amex = new FeeSchedule.FeeRule(AMEX_PROCESSING_FEE_RATE, AMEX_MINIMUM_FEE);
+        rules.put("AMEX", amex);
+        rules.put("AMERICAN_EXPRESS", amex);
+        rules.put("CREDIT_CARD", new FeeSchedule.FeeRule(CREDIT_CARD_PROCESSING_FEE_RATE, CREDIT_CARD_MINIMUM_FEE));
+        rules.put("DEBIT_CARD", new FeeSchedule.FeeRule(DEBIT_CARD_PROCESSING_FEE_RATE, DEBIT_CARD_MINIMUM_FEE));
+        return FeeSchedule.of(rules, new FeeSchedule.FeeRule(VISA_PROCESSING_FEE_RATE, VISA_MINIMUM_FEE));
+    }
+
     /**
      * Update booking payment status after successful card payment
      */
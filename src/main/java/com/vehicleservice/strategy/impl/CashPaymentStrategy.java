@@ -1,10 +1,14 @@
 package com.vehicleservice.strategy.impl;
 
 import com.vehicleservice.entity.Booking;
+import com.vehicleservice.entity.PaymentLedgerEntry;
+import com.vehicleservice.strategy.FeeSchedule;
 import com.vehicleservice.strategy.PaymentProcessingStrategy;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 // Strategy pattern implementation for cash payment processing
@@ -16,6 +20,10 @@ public class CashPaymentStrategy implements PaymentProcessingStrategy {
     private static final BigDecimal MINIMUM_CASH_AMOUNT = new BigDecimal("100.00"); // Minimum 100 LKR
     private static final BigDecimal MAXIMUM_CASH_AMOUNT = new BigDecimal("100000.00"); // Maximum 100,000 LKR
 
+    private static final FeeSchedule FEE_SCHEDULE = FeeSchedule.of(
+            Map.of("CASH", new FeeSchedule.FeeRule(CASH_PROCESSING_FEE_RATE, BigDecimal.ZERO)),
+            new FeeSchedule.FeeRule(CASH_PROCESSING_FEE_RATE, BigDecimal.ZERO));
+
     @Override
     public PaymentResult processPayment(Booking booking, BigDecimal amount, String paymentMethod) {
         // Validate payment first
@@ -34,7 +42,8 @@ public class CashPaymentStrategy implements PaymentProcessingStrategy {
 
         return new PaymentResult(true, transactionId,
                 "Cash payment processed successfully",
-                amount, processingFees);
+                amount, processingFees,
+                List.of(PaymentLedgerEntry.charge(booking, paymentMethod, amount, transactionId)));
     }
 
     @Override
@@ -42,6 +51,11 @@ public class CashPaymentStrategy implements PaymentProcessingStrategy {
         return amount.multiply(CASH_PROCESSING_FEE_RATE);
     }
 
+    @Override
+    public FeeSchedule getFeeSchedule() {
+        return FEE_SCHEDULE;
+    }
+
     @Override
     public PaymentValidationResult validatePayment(Booking booking, BigDecimal amount, String paymentMethod) {
         // Check if amount is within valid range
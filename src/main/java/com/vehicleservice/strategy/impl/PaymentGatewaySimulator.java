@@ -0,0 +1,79 @@
+package com.vehicleservice.strategy.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Local stand-in for the card payment gateway. Each authorization waits the configured latency
+// (plus random jitter) and is declined at the configured failure rate, so payment throughput can
+// be load-tested offline. Settings come from payment.gateway.simulator.* and can be changed at
+// runtime through /actuator/paymentpipeline.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class PaymentGatewaySimulator {
+
+    private volatile long latencyMs;
+    private volatile long latencyJitterMs;
+    private volatile double failureRate;
+
+    private final AtomicLong authorizations = new AtomicLong();
+    private final AtomicLong declines = new AtomicLong();
+
+    public PaymentGatewaySimulator(@Value("${payment.gateway.simulator.latency-ms:1000}") long latencyMs,
+            @Value("${payment.gateway.simulator.latency-jitter-ms:0}") long latencyJitterMs,
+            @Value("${payment.gateway.simulator.failure-rate:0.05}") double failureRate) {
+        configure(latencyMs, latencyJitterMs, failureRate);
+    }
+
+    /// Authorize a charge; false when the gateway declines it or the caller is interrupted while waiting
+    public boolean authorize(String paymentMethod, BigDecimal amount) {
+        long delay = latencyMs;
+        long jitter = latencyJitterMs;
+        if (jitter > 0) {
+            delay += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        authorizations.incrementAndGet();
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            declines.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /// Change the simulated latency and failure rate
+    public void configure(long latencyMs, long latencyJitterMs, double failureRate) {
+        if (latencyMs < 0 || latencyJitterMs < 0) {
+            throw new IllegalArgumentException("Gateway latency cannot be negative");
+        }
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Gateway failure rate must be between 0 and 1");
+        }
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.failureRate = failureRate;
+    }
+
+    /// Current settings and authorization counts
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("latencyMs", latencyMs);
+        stats.put("latencyJitterMs", latencyJitterMs);
+        stats.put("failureRate", failureRate);
+        stats.put("authorizations", authorizations.get());
+        stats.put("declines", declines.get());
+        return stats;
+    }
+}
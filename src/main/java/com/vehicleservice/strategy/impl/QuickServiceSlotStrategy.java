@@ -2,11 +2,11 @@ package com.vehicleservice.strategy.impl;
 
 import com.vehicleservice.service.BookingService.TimeSlot;
 import com.vehicleservice.strategy.SlotGenerationStrategy;
+import com.vehicleservice.strategy.SlotTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 
 // Strategy pattern implementation for quick service slot generation
@@ -20,29 +20,19 @@ public class QuickServiceSlotStrategy implements SlotGenerationStrategy {
     private static final LocalTime WORK_START = LocalTime.of(9, 0); // 9:00 AM
     private static final LocalTime WORK_END = LocalTime.of(17, 0); // 5:00 PM
 
+    // Slot grid computed once at class load
+    private static final SlotTemplate SLOT_TEMPLATE = SlotTemplate.build("QUICK_SERVICE", WORK_START, WORK_END,
+            SLOT_DURATION_MINUTES, SLOT_DURATION_MINUTES, MAX_BOOKINGS_PER_SLOT);
+
     @Override
     public List<TimeSlot> generateSlots(LocalDate date, String serviceType) {
-        List<TimeSlot> slots = new ArrayList<>();
-
-        LocalTime currentTime = WORK_START;
-
-        while (currentTime.isBefore(WORK_END)) {
-            LocalTime endTime = currentTime.plusMinutes(SLOT_DURATION_MINUTES);
-
-            // Don't create slots that would go beyond work hours
-            if (endTime.isAfter(WORK_END)) {
-                break;
-            }
-
-            TimeSlot slot = new TimeSlot(date, currentTime, endTime);
-            slot.setAvailable(true);
-            slot.setRemainingSlots(MAX_BOOKINGS_PER_SLOT);
-            slots.add(slot);
-
-            currentTime = currentTime.plusMinutes(SLOT_DURATION_MINUTES);
-        }
+        return getSlotTemplate(date).toTimeSlots(date);
+    }
 
-        return slots;
+    @Override
+    public SlotTemplate getSlotTemplate(LocalDate date) {
+        // Same working hours every day, so a single template serves all dates
+        return SLOT_TEMPLATE;
     }
 
     @Override
@@ -57,7 +47,7 @@ public class QuickServiceSlotStrategy implements SlotGenerationStrategy {
 
     @Override
     public String getServiceCategory() {
-        return "QUICK_SERVICE";
+        return SLOT_TEMPLATE.getServiceCategory();
     }
 
     @Override
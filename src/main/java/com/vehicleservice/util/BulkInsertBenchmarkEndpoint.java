@@ -0,0 +1,102 @@
+package com.vehicleservice.util;
+
+import com.vehicleservice.entity.Booking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bulk Insert Benchmark Endpoint - POST /actuator/bulkinsertbenchmark inserts the same set of bookings
+// once with one INSERT round trip per row (what IDENTITY ids forced) and once in JDBC batches, and
+// reports both timings. Rows are written in short transactions of CHUNK_ROWS that are each rolled back, so no
+// rows are left behind (sequence values are used up) and SQL Server never escalates to a table lock on bookings.
+@Component
+@Endpoint(id = "bulkinsertbenchmark")
+public class BulkInsertBenchmarkEndpoint {
+
+    private static final int DEFAULT_ROWS = 2000;
+    private static final int MAX_ROWS = 20000;
+
+    // Rows inserted per mode before measuring, so both modes run on warmed-up code paths
+    private static final int WARM_UP_ROWS = 200;
+
+    // Rows per rolled back transaction; kept well under SQL Server's lock escalation threshold (5,000 locks)
+    // so the benchmark only ever holds row locks and live booking reads and writes are not blocked
+    private static final int CHUNK_ROWS = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // Insert the rows in both modes and compare
+    @WriteOperation
+    public Map<String, Object> run(@Nullable Integer rows) {
+        int rowCount = Math.min(Math.max(rows != null ? rows : DEFAULT_ROWS, 1), MAX_ROWS);
+
+        timeInserts(WARM_UP_ROWS, 1);
+        timeInserts(WARM_UP_ROWS, batchSize);
+        long unbatchedNanos = timeInserts(rowCount, 1);
+        long batchedNanos = timeInserts(rowCount, batchSize);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rowCount);
+        result.put("batchSize", batchSize);
+        result.put("unbatchedMs", unbatchedNanos / 1_000_000);
+        result.put("batchedMs", batchedNanos / 1_000_000);
+        result.put("unbatchedRowsPerSecond", rowsPerSecond(rowCount, unbatchedNanos));
+        result.put("batchedRowsPerSecond", rowsPerSecond(rowCount, batchedNanos));
+        result.put("speedup", Math.round((double) unbatchedNanos / Math.max(batchedNanos, 1) * 100) / 100.0);
+        return result;
+    }
+
+    // Nanoseconds to persist and flush the rows with the given JDBC batch size, one rolled back chunk at a time
+    private long timeInserts(int rows, int jdbcBatchSize) {
+        String runId = Long.toString(System.nanoTime(), 36);
+        long elapsed = 0;
+        for (int first = 0; first < rows; first += CHUNK_ROWS) {
+            elapsed += timeChunk(runId, first, Math.min(first + CHUNK_ROWS, rows), jdbcBatchSize);
+        }
+        return elapsed;
+    }
+
+    // Nanoseconds to persist and flush rows [first, end) in one transaction that is rolled back afterwards
+    private long timeChunk(String runId, int first, int end, int jdbcBatchSize) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long elapsed = transaction.execute(status -> {
+            status.setRollbackOnly();
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+            LocalDateTime bookingDate = LocalDateTime.now().plusYears(10);
+            long start = System.nanoTime();
+            for (int i = first; i < end; i++) {
+                entityManager.persist(new Booking("BENCH-" + runId + "-" + i, "Benchmark", "BENCH" + i,
+                        "Benchmark", bookingDate, null));
+            }
+            entityManager.flush();
+            long nanos = System.nanoTime() - start;
+            entityManager.clear();
+            return nanos;
+        });
+        return elapsed != null ? elapsed : 0;
+    }
+
+    private static long rowsPerSecond(int rows, long nanos) {
+        return nanos > 0 ? Math.round(rows * 1_000_000_000.0 / nanos) : 0;
+    }
+}
@@ -0,0 +1,162 @@
+package com.vehicleservice.util;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Decision Trace - fixed-size lock-free ring buffer of recent strategy selections and slot computations.
+// Callers check isActive() before building a trace message, so tracing costs a couple of volatile reads when off.
+@Component
+@org.springframework.context.annotation.Scope("singleton")
+public class DecisionTrace {
+
+    // Ring buffer capacity (power of two so the slot index is a mask)
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+
+    // Username of the current request when it is being traced, null otherwise
+    private static final ThreadLocal<String> TRACED_REQUEST = new ThreadLocal<>();
+
+    private final AtomicReferenceArray<TraceEntry> entries = new AtomicReferenceArray<>(CAPACITY);
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Trace every request
+    private volatile boolean enabled;
+
+    // Users whose requests are traced
+    private final Set<String> tracedUsers = ConcurrentHashMap.newKeySet();
+
+    // Number of requests currently being traced (lets isActive() skip the ThreadLocal lookup)
+    private final AtomicInteger tracedRequests = new AtomicInteger();
+
+    // Whether decisions made on the current thread should be recorded
+    public boolean isActive() {
+        return enabled || (tracedRequests.get() > 0 && TRACED_REQUEST.get() != null);
+    }
+
+    // Record a decision; category groups decisions (e.g. "pricing"), subject is what was decided on
+    public void record(String category, String subject, String decision) {
+        long seq = sequence.getAndIncrement();
+        String user = TRACED_REQUEST.get();
+        entries.set((int) (seq & MASK), new TraceEntry(seq, Instant.now(), Thread.currentThread().getName(),
+                user != null && !user.isEmpty() ? user : null, category, subject, decision));
+    }
+
+    // Most recent entries, newest first
+    public List<TraceEntry> getRecent(int limit) {
+        long last = sequence.get() - 1;
+        int count = (int) Math.min(Math.min(limit, CAPACITY), last + 1);
+        List<TraceEntry> recent = new ArrayList<>(Math.max(count, 0));
+        for (long seq = last; seq > last - count; seq--) {
+            TraceEntry entry = entries.get((int) (seq & MASK));
+            // Skip slots that a concurrent writer has not filled yet or has already overwritten
+            if (entry != null && entry.getSequence() == seq) {
+                recent.add(entry);
+            }
+        }
+        return recent;
+    }
+
+    // Start tracing the current request if requested explicitly or the user is traced; returns true if it was
+    public boolean beginRequest(String username, boolean requested) {
+        if (!requested && (username == null || !tracedUsers.contains(username))) {
+            return false;
+        }
+        TRACED_REQUEST.set(username != null ? username : "");
+        tracedRequests.incrementAndGet();
+        return true;
+    }
+
+    // Stop tracing the current request
+    public void endRequest() {
+        TRACED_REQUEST.remove();
+        tracedRequests.decrementAndGet();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void enableForUser(String username) {
+        tracedUsers.add(username);
+    }
+
+    public void disableForUser(String username) {
+        tracedUsers.remove(username);
+    }
+
+    public Set<String> getTracedUsers() {
+        return Collections.unmodifiableSet(tracedUsers);
+    }
+
+    public int getCapacity() {
+        return CAPACITY;
+    }
+
+    // Total number of decisions recorded since startup
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+
+    // One recorded decision
+    public static class TraceEntry {
+        private final long sequence;
+        private final Instant timestamp;
+        private final String thread;
+        private final String user;
+        private final String category;
+        private final String subject;
+        private final String decision;
+
+        public TraceEntry(long sequence, Instant timestamp, String thread, String user, String category,
+                String subject, String decision) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.thread = thread;
+            this.user = user;
+            this.category = category;
+            this.subject = subject;
+            this.decision = decision;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public String getUser() {
+            return user;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getDecision() {
+            return decision;
+        }
+    }
+}
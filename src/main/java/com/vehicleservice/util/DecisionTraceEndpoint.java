@@ -0,0 +1,57 @@
+package com.vehicleservice.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Decision Trace Endpoint - /actuator/decisiontrace reads recent decisions and switches tracing on or off
+@Component
+@Endpoint(id = "decisiontrace")
+public class DecisionTraceEndpoint {
+
+    // Entries returned when no limit is given
+    private static final int DEFAULT_LIMIT = 200;
+
+    @Autowired
+    private DecisionTrace decisionTrace;
+
+    // Current settings and the most recent decisions, newest first
+    @ReadOperation
+    public Map<String, Object> trace(@Nullable Integer limit) {
+        Map<String, Object> result = status();
+        result.put("entries", decisionTrace.getRecent(limit != null ? limit : DEFAULT_LIMIT));
+        return result;
+    }
+
+    // Switch tracing for every request and/or for single users
+    @WriteOperation
+    public Map<String, Object> configure(@Nullable Boolean enabled, @Nullable String enableUser,
+            @Nullable String disableUser) {
+        if (enabled != null) {
+            decisionTrace.setEnabled(enabled);
+        }
+        if (enableUser != null && !enableUser.isBlank()) {
+            decisionTrace.enableForUser(enableUser.trim());
+        }
+        if (disableUser != null && !disableUser.isBlank()) {
+            decisionTrace.disableForUser(disableUser.trim());
+        }
+        return status();
+    }
+
+    private Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", decisionTrace.isEnabled());
+        status.put("tracedUsers", decisionTrace.getTracedUsers());
+        status.put("requestHeader", DecisionTraceFilter.TRACE_HEADER);
+        status.put("capacity", decisionTrace.getCapacity());
+        status.put("recorded", decisionTrace.getRecordedCount());
+        return status;
+    }
+}
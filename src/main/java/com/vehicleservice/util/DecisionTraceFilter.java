@@ -0,0 +1,44 @@
+package com.vehicleservice.util;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Decision Trace Filter - turns on decision tracing for a request when it carries the trace header
+// or its user has been switched on through the decisiontrace actuator endpoint
+@Component
+public class DecisionTraceFilter extends OncePerRequestFilter {
+
+    // Request header that asks for the request to be traced
+    public static final String TRACE_HEADER = "X-Decision-Trace";
+
+    @Autowired
+    private DecisionTrace decisionTrace;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Runs after the security filter chain, so the authenticated user is known here
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+        boolean requested = "true".equalsIgnoreCase(request.getHeader(TRACE_HEADER));
+
+        if (!decisionTrace.beginRequest(username, requested)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            decisionTrace.endRequest();
+        }
+    }
+}
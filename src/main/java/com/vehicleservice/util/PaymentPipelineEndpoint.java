@@ -0,0 +1,47 @@
+package com.vehicleservice.util;
+
+import com.vehicleservice.service.PaymentPipeline;
+import com.vehicleservice.strategy.impl.PaymentGatewaySimulator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Payment Pipeline Endpoint - /actuator/paymentpipeline reads payment pipeline and gateway simulator
+// counters and changes the simulated gateway latency and failure rate for load tests
+@Component
+@Endpoint(id = "paymentpipeline")
+public class PaymentPipelineEndpoint {
+
+    @Autowired
+    private PaymentPipeline paymentPipeline;
+
+    @Autowired
+    private PaymentGatewaySimulator paymentGatewaySimulator;
+
+    // Payments by status and gateway simulator settings
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pipeline", paymentPipeline.getStats());
+        stats.put("gateway", paymentGatewaySimulator.getStats());
+        return stats;
+    }
+
+    // Change the simulated gateway; settings left out keep their current value
+    @WriteOperation
+    public Map<String, Object> configureGateway(@Nullable Long latencyMs, @Nullable Long latencyJitterMs,
+            @Nullable Double failureRate) {
+        Map<String, Object> current = paymentGatewaySimulator.getStats();
+        paymentGatewaySimulator.configure(
+                latencyMs != null ? latencyMs : (Long) current.get("latencyMs"),
+                latencyJitterMs != null ? latencyJitterMs : (Long) current.get("latencyJitterMs"),
+                failureRate != null ? failureRate : (Double) current.get("failureRate"));
+        return stats();
+    }
+}
@@ -0,0 +1,37 @@
+package com.vehicleservice.util;
+
+import com.vehicleservice.strategy.PaymentProcessingStrategyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Payment Resilience Endpoint - /actuator/paymentresilience reads bulkhead and circuit breaker state
+// per payment strategy and, when payment.fault-injection.enabled is set, injects latency or failures
+// in front of one strategy to check that the others keep working
+@Component
+@Endpoint(id = "paymentresilience")
+public class PaymentResilienceEndpoint {
+
+    @Autowired
+    private PaymentProcessingStrategyManager paymentProcessingStrategyManager;
+
+    // Bulkhead use, circuit state, call counts and injected faults per strategy
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return paymentProcessingStrategyManager.getResilienceStats();
+    }
+
+    // Inject faults for a payment method's strategy; latency and failure rate left out are cleared
+    @WriteOperation
+    public Map<String, Object> injectFaults(String paymentMethod, @Nullable Long latencyMs,
+            @Nullable Double failureRate) {
+        paymentProcessingStrategyManager.injectFaults(paymentMethod, latencyMs != null ? latencyMs : 0,
+                failureRate != null ? failureRate : 0);
+        return stats();
+    }
+}
@@ -0,0 +1,138 @@
+-- Baseline schema, matching the JPA entity mappings.
+-- Databases created before migrations were introduced are baselined at version 1
+-- (spring.flyway.baseline-on-migrate), so this script only runs against an empty database.
+
+CREATE TABLE roles (
+    id          BIGINT IDENTITY(1,1) NOT NULL,
+    role_name   VARCHAR(255) NOT NULL,
+    created_at  DATETIME2(6) NULL,
+    updated_at  DATETIME2(6) NULL,
+    is_active   BIT NOT NULL,
+    CONSTRAINT PK_roles PRIMARY KEY (id),
+    CONSTRAINT UK_roles_role_name UNIQUE (role_name)
+);
+
+CREATE TABLE users (
+    id            BIGINT IDENTITY(1,1) NOT NULL,
+    username      VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    first_name    VARCHAR(255) NOT NULL,
+    last_name     VARCHAR(255) NOT NULL,
+    phone_number  VARCHAR(255) NULL,
+    address       VARCHAR(255) NULL,
+    city          VARCHAR(255) NULL,
+    state         VARCHAR(255) NULL,
+    zip_code      VARCHAR(255) NULL,
+    date_of_birth DATETIME2(6) NULL,
+    last_login    DATETIME2(6) NULL,
+    role_id       BIGINT NOT NULL,
+    created_at    DATETIME2(6) NULL,
+    updated_at    DATETIME2(6) NULL,
+    is_active     BIT NOT NULL,
+    CONSTRAINT PK_users PRIMARY KEY (id),
+    CONSTRAINT UK_users_username UNIQUE (username),
+    CONSTRAINT UK_users_email UNIQUE (email),
+    CONSTRAINT FK_users_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+-- Phone numbers are optional; a filtered index keeps them unique without limiting NULLs to one row
+CREATE UNIQUE INDEX UK_users_phone_number ON users (phone_number) WHERE phone_number IS NOT NULL;
+
+CREATE TABLE bookings (
+    id                 BIGINT IDENTITY(1,1) NOT NULL,
+    booking_number     VARCHAR(50) NOT NULL,
+    customer_name      VARCHAR(100) NOT NULL,
+    vehicle_number     VARCHAR(20) NOT NULL,
+    service_type       VARCHAR(100) NOT NULL,
+    booking_date       DATETIME2(6) NOT NULL,
+    payment_status     VARCHAR(20) NOT NULL,
+    service_price      NUMERIC(10,2) NULL,
+    additional_charges NUMERIC(10,2) NULL,
+    total_price        NUMERIC(10,2) NOT NULL,
+    paid_amount        NUMERIC(10,2) NULL,
+    remaining_amount   NUMERIC(10,2) NULL,
+    payment_method     VARCHAR(50) NULL,
+    notes              VARCHAR(1000) NULL,
+    created_at         DATETIME2(6) NULL,
+    updated_at         DATETIME2(6) NULL,
+    CONSTRAINT PK_bookings PRIMARY KEY (id),
+    CONSTRAINT UK_bookings_booking_number UNIQUE (booking_number)
+);
+
+CREATE TABLE technicians (
+    id                 BIGINT IDENTITY(1,1) NOT NULL,
+    user_id            BIGINT NOT NULL,
+    employee_id        VARCHAR(255) NOT NULL,
+    specialization     VARCHAR(255) NULL,
+    max_daily_workload INT NOT NULL,
+    current_workload   INT NOT NULL,
+    hourly_rate        NUMERIC(10,2) NULL,
+    experience_years   INT NULL,
+    created_at         DATETIME2(6) NULL,
+    updated_at         DATETIME2(6) NULL,
+    is_active          BIT NOT NULL,
+    CONSTRAINT PK_technicians PRIMARY KEY (id),
+    CONSTRAINT UK_technicians_user_id UNIQUE (user_id),
+    CONSTRAINT UK_technicians_employee_id UNIQUE (employee_id),
+    CONSTRAINT FK_technicians_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE technician_assignments (
+    id              BIGINT IDENTITY(1,1) NOT NULL,
+    booking_id      BIGINT NOT NULL,
+    technician_id   BIGINT NOT NULL,
+    assigned_by     BIGINT NOT NULL,
+    assignment_date DATETIME2(6) NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    notes           VARCHAR(255) NULL,
+    created_at      DATETIME2(6) NULL,
+    updated_at      DATETIME2(6) NULL,
+    is_active       BIT NOT NULL,
+    CONSTRAINT PK_technician_assignments PRIMARY KEY (id),
+    CONSTRAINT FK_technician_assignments_booking FOREIGN KEY (booking_id) REFERENCES bookings (id),
+    CONSTRAINT FK_technician_assignments_technician FOREIGN KEY (technician_id) REFERENCES technicians (id),
+    CONSTRAINT FK_technician_assignments_assigned_by FOREIGN KEY (assigned_by) REFERENCES users (id)
+);
+
+CREATE TABLE inventory_items (
+    id            BIGINT IDENTITY(1,1) NOT NULL,
+    item_name     VARCHAR(255) NOT NULL,
+    category      VARCHAR(255) NOT NULL,
+    quantity      INT NOT NULL,
+    unit_price    NUMERIC(38,2) NOT NULL,
+    reorder_level INT NOT NULL,
+    created_at    DATETIME2(6) NULL,
+    updated_at    DATETIME2(6) NULL,
+    is_active     BIT NOT NULL,
+    CONSTRAINT PK_inventory_items PRIMARY KEY (id)
+);
+
+CREATE TABLE inventory_transactions (
+    id               BIGINT IDENTITY(1,1) NOT NULL,
+    item_id          BIGINT NOT NULL,
+    transaction_type VARCHAR(255) NOT NULL,
+    quantity         INT NOT NULL,
+    date             DATETIME2(6) NOT NULL,
+    staff_id         BIGINT NOT NULL,
+    created_at       DATETIME2(6) NULL,
+    updated_at       DATETIME2(6) NULL,
+    is_active        BIT NOT NULL,
+    CONSTRAINT PK_inventory_transactions PRIMARY KEY (id),
+    CONSTRAINT FK_inventory_transactions_item FOREIGN KEY (item_id) REFERENCES inventory_items (id),
+    CONSTRAINT FK_inventory_transactions_staff FOREIGN KEY (staff_id) REFERENCES users (id)
+);
+
+CREATE TABLE feedback (
+    id          BIGINT IDENTITY(1,1) NOT NULL,
+    rating      INT NOT NULL,
+    comment     VARCHAR(500) NULL,
+    bookings_id BIGINT NOT NULL,
+    users_id    BIGINT NOT NULL,
+    created_at  DATETIME2(6) NULL,
+    updated_at  DATETIME2(6) NULL,
+    is_active   BIT NOT NULL,
+    CONSTRAINT PK_feedback PRIMARY KEY (id),
+    CONSTRAINT FK_feedback_booking FOREIGN KEY (bookings_id) REFERENCES bookings (id),
+    CONSTRAINT FK_feedback_user FOREIGN KEY (users_id) REFERENCES users (id)
+);
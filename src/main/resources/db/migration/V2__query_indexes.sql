@@ -0,0 +1,42 @@
+-- Indexes for the date-range, status and foreign-key lookups issued by the repositories.
+-- Guarded with IF NOT EXISTS so the script is safe on baselined databases that were indexed by hand.
+-- SQL Server stores the clustered key (id) in every nonclustered index, so id is covered implicitly.
+
+-- Day / slot windows: booking_date >= :start AND booking_date < :end (slot counts are index-only)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_bookings_booking_date' AND object_id = OBJECT_ID('dbo.bookings'))
+    CREATE INDEX IX_bookings_booking_date ON dbo.bookings (booking_date)
+        INCLUDE (service_type, payment_status, total_price);
+
+-- Payment status filters and revenue totals
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_bookings_payment_status' AND object_id = OBJECT_ID('dbo.bookings'))
+    CREATE INDEX IX_bookings_payment_status ON dbo.bookings (payment_status, booking_date)
+        INCLUDE (total_price, paid_amount, payment_method);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_technician_assignments_booking_id' AND object_id = OBJECT_ID('dbo.technician_assignments'))
+    CREATE INDEX IX_technician_assignments_booking_id ON dbo.technician_assignments (booking_id)
+        INCLUDE (technician_id, status);
+
+-- Per-technician workload and date-range lookups
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_technician_assignments_technician_id' AND object_id = OBJECT_ID('dbo.technician_assignments'))
+    CREATE INDEX IX_technician_assignments_technician_id ON dbo.technician_assignments (technician_id, assignment_date)
+        INCLUDE (booking_id, status);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_technician_assignments_assignment_date' AND object_id = OBJECT_ID('dbo.technician_assignments'))
+    CREATE INDEX IX_technician_assignments_assignment_date ON dbo.technician_assignments (assignment_date);
+
+-- Item history, newest first
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_inventory_transactions_item_id' AND object_id = OBJECT_ID('dbo.inventory_transactions'))
+    CREATE INDEX IX_inventory_transactions_item_id ON dbo.inventory_transactions (item_id, date)
+        INCLUDE (transaction_type, quantity);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_inventory_transactions_date' AND object_id = OBJECT_ID('dbo.inventory_transactions'))
+    CREATE INDEX IX_inventory_transactions_date ON dbo.inventory_transactions (date);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_feedback_bookings_id' AND object_id = OBJECT_ID('dbo.feedback'))
+    CREATE INDEX IX_feedback_bookings_id ON dbo.feedback (bookings_id);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_feedback_users_id' AND object_id = OBJECT_ID('dbo.feedback'))
+    CREATE INDEX IX_feedback_users_id ON dbo.feedback (users_id);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_users_role_id' AND object_id = OBJECT_ID('dbo.users'))
+    CREATE INDEX IX_users_role_id ON dbo.users (role_id);
@@ -0,0 +1,5 @@
+-- Booking number blocks (see BookingNumberAllocator): each NEXT VALUE reserves 100 numbers.
+-- Starts above the legacy random six-digit range (BK100000-BK999999).
+-- Guarded because the allocator created this sequence on first use before migrations existed.
+IF NOT EXISTS (SELECT 1 FROM sys.sequences WHERE name = 'booking_number_seq')
+    CREATE SEQUENCE dbo.booking_number_seq AS BIGINT START WITH 1000000 INCREMENT BY 100;
@@ -0,0 +1,13 @@
+-- Link bookings to the customer account that owns them instead of matching on customer_name.
+-- Existing rows are linked by BookingCustomerBackfill at startup; rows it cannot link stay NULL.
+
+IF COL_LENGTH('dbo.bookings', 'customer_id') IS NULL
+    ALTER TABLE dbo.bookings ADD customer_id BIGINT NULL;
+
+IF NOT EXISTS (SELECT 1 FROM sys.foreign_keys WHERE name = 'FK_bookings_customer')
+    ALTER TABLE dbo.bookings ADD CONSTRAINT FK_bookings_customer FOREIGN KEY (customer_id) REFERENCES dbo.users (id);
+
+-- A customer's bookings, newest first (dashboard pages and ownership checks)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_bookings_customer_id' AND object_id = OBJECT_ID('dbo.bookings'))
+    CREATE INDEX IX_bookings_customer_id ON dbo.bookings (customer_id, booking_date DESC)
+        INCLUDE (payment_status);
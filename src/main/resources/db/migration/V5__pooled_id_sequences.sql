@@ -0,0 +1,197 @@
+-- Sequence-generated ids for bookings, technician_assignments, inventory_transactions and feedback.
+-- IDENTITY ids are only known after each INSERT, which stops Hibernate from batching inserts; with a
+-- sequence Hibernate reserves 50 ids per round trip (pooled optimizer) and sends inserts in JDBC batches.
+-- SQL Server cannot drop the IDENTITY property from a column, so each table is rebuilt without it,
+-- keeping its ids. Constraints are looked up in the catalog because databases created by Hibernate
+-- before migrations existed carry generated constraint names; they are recreated with the V1 names.
+
+-- Foreign keys into or out of the rebuilt tables
+DECLARE @sql NVARCHAR(MAX) = N'';
+SELECT @sql += N'ALTER TABLE ' + QUOTENAME(OBJECT_SCHEMA_NAME(fk.parent_object_id)) + N'.'
+        + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(fk.name) + N'; '
+FROM sys.foreign_keys fk
+WHERE fk.parent_object_id IN (OBJECT_ID('dbo.bookings'), OBJECT_ID('dbo.technician_assignments'),
+        OBJECT_ID('dbo.inventory_transactions'), OBJECT_ID('dbo.feedback'))
+   OR fk.referenced_object_id IN (OBJECT_ID('dbo.bookings'), OBJECT_ID('dbo.technician_assignments'),
+        OBJECT_ID('dbo.inventory_transactions'), OBJECT_ID('dbo.feedback'));
+EXEC sp_executesql @sql;
+GO
+
+-- bookings
+CREATE TABLE dbo.bookings_rebuild (
+    id                 BIGINT NOT NULL,
+    booking_number     VARCHAR(50) NOT NULL,
+    customer_name      VARCHAR(100) NOT NULL,
+    vehicle_number     VARCHAR(20) NOT NULL,
+    service_type       VARCHAR(100) NOT NULL,
+    booking_date       DATETIME2(6) NOT NULL,
+    payment_status     VARCHAR(20) NOT NULL,
+    service_price      NUMERIC(10,2) NULL,
+    additional_charges NUMERIC(10,2) NULL,
+    total_price        NUMERIC(10,2) NOT NULL,
+    paid_amount        NUMERIC(10,2) NULL,
+    remaining_amount   NUMERIC(10,2) NULL,
+    payment_method     VARCHAR(50) NULL,
+    notes              VARCHAR(1000) NULL,
+    created_at         DATETIME2(6) NULL,
+    updated_at         DATETIME2(6) NULL,
+    customer_id        BIGINT NULL,
+    CONSTRAINT PK_bookings_rebuild PRIMARY KEY (id)
+);
+GO
+
+INSERT INTO dbo.bookings_rebuild WITH (TABLOCK) (id, booking_number, customer_name, vehicle_number, service_type,
+        booking_date, payment_status, service_price, additional_charges, total_price, paid_amount, remaining_amount,
+        payment_method, notes, created_at, updated_at, customer_id)
+SELECT id, booking_number, customer_name, vehicle_number, service_type, booking_date, payment_status, service_price,
+        additional_charges, total_price, paid_amount, remaining_amount, payment_method, notes, created_at, updated_at,
+        customer_id
+FROM dbo.bookings;
+GO
+
+DROP TABLE dbo.bookings;
+EXEC sp_rename 'dbo.bookings_rebuild', 'bookings';
+EXEC sp_rename 'dbo.PK_bookings_rebuild', 'PK_bookings', 'OBJECT';
+GO
+
+-- technician_assignments
+CREATE TABLE dbo.technician_assignments_rebuild (
+    id              BIGINT NOT NULL,
+    booking_id      BIGINT NOT NULL,
+    technician_id   BIGINT NOT NULL,
+    assigned_by     BIGINT NOT NULL,
+    assignment_date DATETIME2(6) NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    notes           VARCHAR(255) NULL,
+    created_at      DATETIME2(6) NULL,
+    updated_at      DATETIME2(6) NULL,
+    is_active       BIT NOT NULL,
+    CONSTRAINT PK_technician_assignments_rebuild PRIMARY KEY (id)
+);
+GO
+
+INSERT INTO dbo.technician_assignments_rebuild WITH (TABLOCK) (id, booking_id, technician_id, assigned_by,
+        assignment_date, status, notes, created_at, updated_at, is_active)
+SELECT id, booking_id, technician_id, assigned_by, assignment_date, status, notes, created_at, updated_at, is_active
+FROM dbo.technician_assignments;
+GO
+
+DROP TABLE dbo.technician_assignments;
+EXEC sp_rename 'dbo.technician_assignments_rebuild', 'technician_assignments';
+EXEC sp_rename 'dbo.PK_technician_assignments_rebuild', 'PK_technician_assignments', 'OBJECT';
+GO
+
+-- inventory_transactions
+CREATE TABLE dbo.inventory_transactions_rebuild (
+    id               BIGINT NOT NULL,
+    item_id          BIGINT NOT NULL,
+    transaction_type VARCHAR(255) NOT NULL,
+    quantity         INT NOT NULL,
+    date             DATETIME2(6) NOT NULL,
+    staff_id         BIGINT NOT NULL,
+    created_at       DATETIME2(6) NULL,
+    updated_at       DATETIME2(6) NULL,
+    is_active        BIT NOT NULL,
+    CONSTRAINT PK_inventory_transactions_rebuild PRIMARY KEY (id)
+);
+GO
+
+INSERT INTO dbo.inventory_transactions_rebuild WITH (TABLOCK) (id, item_id, transaction_type, quantity, date,
+        staff_id, created_at, updated_at, is_active)
+SELECT id, item_id, transaction_type, quantity, date, staff_id, created_at, updated_at, is_active
+FROM dbo.inventory_transactions;
+GO
+
+DROP TABLE dbo.inventory_transactions;
+EXEC sp_rename 'dbo.inventory_transactions_rebuild', 'inventory_transactions';
+EXEC sp_rename 'dbo.PK_inventory_transactions_rebuild', 'PK_inventory_transactions', 'OBJECT';
+GO
+
+-- feedback
+CREATE TABLE dbo.feedback_rebuild (
+    id          BIGINT NOT NULL,
+    rating      INT NOT NULL,
+    comment     VARCHAR(500) NULL,
+    bookings_id BIGINT NOT NULL,
+    users_id    BIGINT NOT NULL,
+    created_at  DATETIME2(6) NULL,
+    updated_at  DATETIME2(6) NULL,
+    is_active   BIT NOT NULL,
+    CONSTRAINT PK_feedback_rebuild PRIMARY KEY (id)
+);
+GO
+
+INSERT INTO dbo.feedback_rebuild WITH (TABLOCK) (id, rating, comment, bookings_id, users_id, created_at, updated_at,
+        is_active)
+SELECT id, rating, comment, bookings_id, users_id, created_at, updated_at, is_active
+FROM dbo.feedback;
+GO
+
+DROP TABLE dbo.feedback;
+EXEC sp_rename 'dbo.feedback_rebuild', 'feedback';
+EXEC sp_rename 'dbo.PK_feedback_rebuild', 'PK_feedback', 'OBJECT';
+GO
+
+-- Unique constraints, indexes (V2, V4) and foreign keys (V1, V4) of the rebuilt tables
+ALTER TABLE dbo.bookings ADD CONSTRAINT UK_bookings_booking_number UNIQUE (booking_number);
+
+CREATE INDEX IX_bookings_booking_date ON dbo.bookings (booking_date)
+    INCLUDE (service_type, payment_status, total_price);
+CREATE INDEX IX_bookings_payment_status ON dbo.bookings (payment_status, booking_date)
+    INCLUDE (total_price, paid_amount, payment_method);
+CREATE INDEX IX_bookings_customer_id ON dbo.bookings (customer_id, booking_date DESC)
+    INCLUDE (payment_status);
+CREATE INDEX IX_technician_assignments_booking_id ON dbo.technician_assignments (booking_id)
+    INCLUDE (technician_id, status);
+CREATE INDEX IX_technician_assignments_technician_id ON dbo.technician_assignments (technician_id, assignment_date)
+    INCLUDE (booking_id, status);
+CREATE INDEX IX_technician_assignments_assignment_date ON dbo.technician_assignments (assignment_date);
+CREATE INDEX IX_inventory_transactions_item_id ON dbo.inventory_transactions (item_id, date)
+    INCLUDE (transaction_type, quantity);
+CREATE INDEX IX_inventory_transactions_date ON dbo.inventory_transactions (date);
+CREATE INDEX IX_feedback_bookings_id ON dbo.feedback (bookings_id);
+CREATE INDEX IX_feedback_users_id ON dbo.feedback (users_id);
+
+ALTER TABLE dbo.bookings ADD CONSTRAINT FK_bookings_customer FOREIGN KEY (customer_id) REFERENCES dbo.users (id);
+ALTER TABLE dbo.technician_assignments ADD CONSTRAINT FK_technician_assignments_booking
+    FOREIGN KEY (booking_id) REFERENCES dbo.bookings (id);
+ALTER TABLE dbo.technician_assignments ADD CONSTRAINT FK_technician_assignments_technician
+    FOREIGN KEY (technician_id) REFERENCES dbo.technicians (id);
+ALTER TABLE dbo.technician_assignments ADD CONSTRAINT FK_technician_assignments_assigned_by
+    FOREIGN KEY (assigned_by) REFERENCES dbo.users (id);
+ALTER TABLE dbo.inventory_transactions ADD CONSTRAINT FK_inventory_transactions_item
+    FOREIGN KEY (item_id) REFERENCES dbo.inventory_items (id);
+ALTER TABLE dbo.inventory_transactions ADD CONSTRAINT FK_inventory_transactions_staff
+    FOREIGN KEY (staff_id) REFERENCES dbo.users (id);
+ALTER TABLE dbo.feedback ADD CONSTRAINT FK_feedback_booking FOREIGN KEY (bookings_id) REFERENCES dbo.bookings (id);
+ALTER TABLE dbo.feedback ADD CONSTRAINT FK_feedback_user FOREIGN KEY (users_id) REFERENCES dbo.users (id);
+GO
+
+-- One sequence per table, INCREMENT BY the entities' allocationSize (50). Hibernate's pooled optimizer
+-- treats each value as the top of a block of 50 ids, so the sequences start 50 above the highest
+-- existing id. The column defaults keep plain SQL inserts without an id working.
+DECLARE @table SYSNAME;
+DECLARE @start BIGINT;
+DECLARE @sql NVARCHAR(MAX);
+DECLARE rebuilt CURSOR LOCAL FAST_FORWARD FOR
+    SELECT name FROM (VALUES ('bookings'), ('technician_assignments'), ('inventory_transactions'), ('feedback')) t (name);
+OPEN rebuilt;
+FETCH NEXT FROM rebuilt INTO @table;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    SET @sql = N'SELECT @start = ISNULL(MAX(id), 0) + 50 FROM dbo.' + QUOTENAME(@table);
+    EXEC sp_executesql @sql, N'@start BIGINT OUTPUT', @start = @start OUTPUT;
+
+    SET @sql = N'CREATE SEQUENCE dbo.' + QUOTENAME(@table + '_seq') + N' AS BIGINT START WITH '
+            + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+    EXEC sp_executesql @sql;
+
+    SET @sql = N'ALTER TABLE dbo.' + QUOTENAME(@table) + N' ADD CONSTRAINT ' + QUOTENAME('DF_' + @table + '_id')
+            + N' DEFAULT (NEXT VALUE FOR dbo.' + QUOTENAME(@table + '_seq') + N') FOR id';
+    EXEC sp_executesql @sql;
+
+    FETCH NEXT FROM rebuilt INTO @table;
+END;
+CLOSE rebuilt;
+DEALLOCATE rebuilt;
+GO
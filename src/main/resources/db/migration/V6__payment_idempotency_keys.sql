@@ -0,0 +1,27 @@
+-- Idempotency keys of customer payment submissions (see PaymentIdempotencyStore). A key is scoped to
+-- the submitting user and stores the outcome of the payment it was first used for, so a retried
+-- submission returns that outcome instead of charging again. Rows older than a day are purged.
+
+CREATE SEQUENCE dbo.payment_idempotency_keys_seq AS BIGINT START WITH 50 INCREMENT BY 50;
+
+CREATE TABLE dbo.payment_idempotency_keys (
+    id               BIGINT NOT NULL
+        CONSTRAINT DF_payment_idempotency_keys_id DEFAULT (NEXT VALUE FOR dbo.payment_idempotency_keys_seq),
+    username         VARCHAR(255) NOT NULL,
+    idempotency_key  VARCHAR(100) NOT NULL,
+    payment_id       VARCHAR(36) NOT NULL,
+    booking_id       BIGINT NOT NULL,
+    amount           NUMERIC(10,2) NOT NULL,
+    payment_method   VARCHAR(50) NOT NULL,
+    success          BIT NOT NULL,
+    transaction_id   VARCHAR(50) NULL,
+    message          VARCHAR(500) NULL,
+    processed_amount NUMERIC(10,2) NULL,
+    processing_fees  NUMERIC(10,2) NULL,
+    created_at       DATETIME2(6) NOT NULL,
+    CONSTRAINT PK_payment_idempotency_keys PRIMARY KEY (id),
+    CONSTRAINT UK_payment_idempotency_keys_key UNIQUE (username, idempotency_key)
+);
+
+-- Purge of expired keys
+CREATE INDEX IX_payment_idempotency_keys_created_at ON dbo.payment_idempotency_keys (created_at);
@@ -0,0 +1,55 @@
+-- Append-only payment ledger: one row per charge, processing fee or refund, written in the same
+-- transaction as the booking update it accounts for. Rows keep the booking id and number without a
+-- foreign key so that history outlives the booking. A trigger rejects updates and deletes.
+
+CREATE SEQUENCE dbo.payment_ledger_seq AS BIGINT START WITH 50 INCREMENT BY 50;
+
+CREATE TABLE dbo.payment_ledger (
+    id             BIGINT NOT NULL
+        CONSTRAINT DF_payment_ledger_id DEFAULT (NEXT VALUE FOR dbo.payment_ledger_seq),
+    booking_id     BIGINT NOT NULL,
+    booking_number VARCHAR(50) NOT NULL,
+    entry_type     VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(50) NULL,
+    amount         NUMERIC(12,2) NOT NULL,
+    transaction_id VARCHAR(50) NULL,
+    recorded_at    DATETIME2(6) NOT NULL,
+    CONSTRAINT PK_payment_ledger PRIMARY KEY (id),
+    CONSTRAINT CK_payment_ledger_entry_type CHECK (entry_type IN ('CHARGE', 'FEE', 'REFUND')),
+    CONSTRAINT CK_payment_ledger_amount CHECK (amount >= 0)
+);
+
+-- Settlement scans a day of entries in recorded order; the included columns cover the scan
+CREATE INDEX IX_payment_ledger_recorded_at ON dbo.payment_ledger (recorded_at, id)
+    INCLUDE (entry_type, payment_method, amount);
+CREATE INDEX IX_payment_ledger_booking_id ON dbo.payment_ledger (booking_id);
+GO
+
+CREATE TRIGGER dbo.TR_payment_ledger_append_only ON dbo.payment_ledger
+    AFTER UPDATE, DELETE
+AS
+BEGIN
+    SET NOCOUNT ON;
+    THROW 51000, 'payment_ledger is append-only', 1;
+END;
+GO
+
+-- Daily totals per payment method, produced by PaymentSettlementJob from the ledger.
+-- A day that is settled again replaces its rows.
+CREATE SEQUENCE dbo.payment_settlements_seq AS BIGINT START WITH 50 INCREMENT BY 50;
+
+CREATE TABLE dbo.payment_settlements (
+    id              BIGINT NOT NULL
+        CONSTRAINT DF_payment_settlements_id DEFAULT (NEXT VALUE FOR dbo.payment_settlements_seq),
+    settlement_date DATE NOT NULL,
+    payment_method  VARCHAR(50) NOT NULL,
+    charges         NUMERIC(14,2) NOT NULL,
+    fees            NUMERIC(14,2) NOT NULL,
+    refunds         NUMERIC(14,2) NOT NULL,
+    net             NUMERIC(14,2) NOT NULL,
+    entry_count     INT NOT NULL,
+    settled_at      DATETIME2(6) NOT NULL,
+    CONSTRAINT PK_payment_settlements PRIMARY KEY (id),
+    CONSTRAINT UK_payment_settlements_day_method UNIQUE (settlement_date, payment_method)
+);
+GO
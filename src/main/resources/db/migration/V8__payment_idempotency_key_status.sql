@@ -0,0 +1,15 @@
+-- Idempotency keys are claimed when a payment is submitted: the row is inserted as PENDING under the
+-- unique (username, idempotency_key) constraint before the payment runs, so a duplicate submitted to
+-- another instance or after a restart is refused too. The final status is written once the payment
+-- finishes; success stays NULL until then.
+
+ALTER TABLE dbo.payment_idempotency_keys ADD status VARCHAR(20) NOT NULL
+    CONSTRAINT DF_payment_idempotency_keys_status DEFAULT ('PENDING');
+GO
+
+UPDATE dbo.payment_idempotency_keys SET status = CASE WHEN success = 1 THEN 'SUCCEEDED' ELSE 'FAILED' END;
+
+ALTER TABLE dbo.payment_idempotency_keys ALTER COLUMN success BIT NULL;
+
+ALTER TABLE dbo.payment_idempotency_keys ADD CONSTRAINT CK_payment_idempotency_keys_status
+    CHECK (status IN ('PENDING', 'SUCCEEDED', 'FAILED', 'TIMED_OUT'));